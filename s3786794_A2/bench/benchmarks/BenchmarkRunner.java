@@ -0,0 +1,104 @@
+package benchmarks;
+
+/**
+ * BenchmarkRunner is the class responsible for timing an operation
+ * the way a benchmark harness would. Each operation is first run
+ * without being timed so the JIT compiler can settle, and is then
+ * timed over several rounds of a fixed length. The value an operation
+ * returns is kept so the work cannot be optimised away.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class BenchmarkRunner {
+	private long warmupMillis;
+	private long roundMillis;
+	private int rounds;
+	private volatile long sink;
+
+	/**
+	 * Operation is the interface for a single invocation of
+	 * the code being measured.
+	 */
+	public interface Operation {
+		/**
+		 * Method is responsible for running the code being
+		 * measured once.
+		 *
+		 * @return					Returns any value computed, so that it
+		 * 							is consumed by the runner.
+		 * @throws Exception		If the code being measured fails
+		 */
+		long run() throws Exception;
+	}
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param warmupMillis		untimed warm up time. Takes numeric input
+	 * 							in milliseconds
+	 * @param roundMillis		length of each timed round. Takes numeric
+	 * 							input in milliseconds
+	 * @param rounds			number of timed rounds. Takes numeric input
+	 */
+	public BenchmarkRunner(long warmupMillis, long roundMillis, int rounds) {
+		this.warmupMillis = warmupMillis;
+		this.roundMillis = roundMillis;
+		this.rounds = rounds;
+	}
+
+	/**
+	 * Method is responsible for warming up and timing an operation,
+	 * printing the average and best time of one invocation.
+	 *
+	 * @param name				benchmark name. Takes string input
+	 * @param params			parameters of the run. Takes string input
+	 * @param operation			code being measured. Takes Operation input
+	 * @throws Exception		If the code being measured fails
+	 */
+	public void measure(String name, String params, Operation operation) throws Exception {
+		runFor(operation, warmupMillis * 1000000L);
+
+		double total = 0;
+		double best = Double.MAX_VALUE;
+		for (int i = 0; i < rounds; i++) {
+			double nanosPerOp = runFor(operation, roundMillis * 1000000L);
+			total += nanosPerOp;
+			best = Math.min(best, nanosPerOp);
+		}
+		System.out.println(String.format("%-32s %-28s %14.1f ns/op %14.1f best", name, params, total / rounds, best));
+	}
+
+	/**
+	 * Method is responsible for running an operation repeatedly
+	 * until a length of time has passed. The clock is read after
+	 * a growing batch of invocations rather than after each one,
+	 * so reading it does not swamp very short operations.
+	 *
+	 * @param operation			code being measured. Takes Operation input
+	 * @param nanos				time to run for. Takes numeric input in
+	 * 							nanoseconds
+	 * @return					Returns the average time of one invocation
+	 * 							in nanoseconds.
+	 * @throws Exception		If the code being measured fails
+	 */
+	private double runFor(Operation operation, long nanos) throws Exception {
+		long result = 0;
+		long invocations = 0;
+		long batch = 1;
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			for (long i = 0; i < batch; i++) {
+				result += operation.run();
+			}
+			invocations += batch;
+			elapsed = System.nanoTime() - start;
+			if (elapsed < nanos / 100) {
+				batch *= 2;
+			}
+		} while (elapsed < nanos);
+		sink += result;
+		return (double) elapsed / invocations;
+	}
+}
@@ -0,0 +1,125 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+
+import app.BookingEngine;
+import app.MiRideApplication;
+import utilities.DateTime;
+
+/**
+ * BookingEngineCheck is the class responsible for checking that
+ * the booking engine never books a car twice on the same day. Many
+ * dispatchers race to book the same car on the same days, round after
+ * round, and the check fails unless exactly one booking of each day
+ * succeeds.
+ *
+ * Arguments are given as name=value pairs, for example
+ * threads=8 rounds=500
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class BookingEngineCheck {
+	private static final String REG_NO = "RCE001";
+	private static final int DAYS_BOOKED = 5;
+
+	public static void main(String[] args) throws Exception {
+		int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+		int rounds = 500;
+
+		for (String arg : args) {
+			String[] pair = arg.split("=", 2);
+			if (pair.length != 2) {
+				throw new IllegalArgumentException("Expected name=value but found " + arg);
+			}
+			if (pair[0].equals("threads")) {
+				threads = Integer.parseInt(pair[1]);
+			} else if (pair[0].equals("rounds")) {
+				rounds = Integer.parseInt(pair[1]);
+			} else {
+				throw new IllegalArgumentException("Unknown argument " + pair[0]);
+			}
+		}
+
+		PrintStream console = System.out;
+		for (int round = 0; round < rounds; round++) {
+			// Finding a booking reference prints a blank line, which is hidden while racing
+			System.setOut(new PrintStream(new OutputStream() {
+				public void write(int b) {
+				}
+			}));
+			int[] bookingsMade;
+			try {
+				bookingsMade = runRound(threads);
+			} finally {
+				System.setOut(console);
+			}
+			for (int day = 0; day < DAYS_BOOKED; day++) {
+				if (bookingsMade[day] != 1) {
+					throw new IllegalStateException("Round " + round + " booked " + REG_NO + " "
+												+ bookingsMade[day] + " times on day " + day);
+				}
+			}
+		}
+		System.out.println(rounds + " rounds of " + threads + " dispatchers racing for each of "
+							+ DAYS_BOOKED + " days: every day booked exactly once");
+	}
+
+	/**
+	 * Method is responsible for racing one booking request from
+	 * every dispatcher for each day against a newly created car.
+	 *
+	 * @param threads			number of requests for each day. Takes numeric input
+	 * @return					Returns the number of successful bookings of each day.
+	 * @throws Exception		If a request could not be run
+	 */
+	private static int[] runRound(int threads) throws Exception {
+		MiRideApplication application = new MiRideApplication();
+		application.createCar("SD", REG_NO, "Toyota", "Corolla", "Jane Doe", 4, 0, null);
+		BookingEngine engine = new BookingEngine(application, threads);
+
+		ArrayList<ArrayList<Future<String>>> requests = new ArrayList<ArrayList<Future<String>>>();
+		for (int day = 0; day < DAYS_BOOKED; day++) {
+			requests.add(new ArrayList<Future<String>>());
+		}
+		// Requests for every day are interleaved so that each day is raced for at once
+		for (int i = 0; i < threads; i++) {
+			for (int day = 0; day < DAYS_BOOKED; day++) {
+				requests.get(day).add(engine.submitBooking(passengerName(i), "Racer", new DateTime(day), 1, REG_NO));
+			}
+		}
+
+		int[] bookingsMade = new int[DAYS_BOOKED];
+		try {
+			for (int day = 0; day < DAYS_BOOKED; day++) {
+				for (Future<String> request : requests.get(day)) {
+					if (request.get().startsWith("Thank you")) {
+						bookingsMade[day]++;
+					}
+				}
+			}
+		} finally {
+			engine.shutdown();
+		}
+		return bookingsMade;
+	}
+
+	/**
+	 * Method is responsible for building a different first name
+	 * for each dispatcher.
+	 *
+	 * @param index		dispatcher number. Takes numeric input
+	 * @return			Returns a name made of letters only.
+	 */
+	private static String passengerName(int index) {
+		StringBuilder sb = new StringBuilder("Rider");
+		do {
+			sb.append((char) ('a' + index % 26));
+			index /= 26;
+		} while (index > 0);
+		return sb.toString();
+	}
+}
@@ -0,0 +1,311 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import app.MiRideApplication;
+import cars.Car;
+import cars.Fleet;
+import exceptions.*;
+import persistence.MainPersistence;
+import utilities.DateTime;
+import utilities.DateUtilities;
+
+/**
+ * MiRideBenchmarks is the class responsible for measuring the
+ * booking, availability, display and persistence paths of the system
+ * for a range of fleet sizes and bookings per car, so that changes can
+ * be compared before they are deployed.
+ *
+ * Arguments are given as name=value pairs, for example
+ * fleetSizes=100,1000 bookingsPerCar=0,3 warmup=500 round=500 rounds=5
+ * searchFleetSizes=100000 threads=1,2,4
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class MiRideBenchmarks {
+	private static final String[] FIRST_NAMES = {"Alice", "Bruce", "Carol", "David", "Ellen"};
+	private static final String[] LAST_NAMES = {"Brown", "Smith", "Jones", "White", "Green"};
+	private static final int MAXIMUM_BOOKINGS = 5;
+	private static final int CAR_BOOK_REUSE = 1000;
+
+	private BenchmarkRunner runner;
+	private File dataDirectory;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param runner				times each benchmark. Takes custom
+	 * 								BenchmarkRunner object
+	 * @param dataDirectory			directory for saved files. Takes File input
+	 */
+	public MiRideBenchmarks(BenchmarkRunner runner, File dataDirectory) {
+		this.runner = runner;
+		this.dataDirectory = dataDirectory;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int[] fleetSizes = {100, 1000};
+		int[] bookingsPerCar = {0, 3};
+		long warmup = 500;
+		long round = 500;
+		int rounds = 5;
+		int[] searchFleetSizes = {100000};
+		int[] threads = defaultThreads();
+
+		for (String arg : args) {
+			String[] pair = arg.split("=", 2);
+			if (pair.length != 2) {
+				throw new IllegalArgumentException("Expected name=value but found " + arg);
+			}
+			if (pair[0].equals("fleetSizes")) {
+				fleetSizes = parseList(pair[1]);
+			} else if (pair[0].equals("bookingsPerCar")) {
+				bookingsPerCar = parseList(pair[1]);
+			} else if (pair[0].equals("warmup")) {
+				warmup = Long.parseLong(pair[1]);
+			} else if (pair[0].equals("round")) {
+				round = Long.parseLong(pair[1]);
+			} else if (pair[0].equals("rounds")) {
+				rounds = Integer.parseInt(pair[1]);
+			} else if (pair[0].equals("searchFleetSizes")) {
+				searchFleetSizes = parseList(pair[1]);
+			} else if (pair[0].equals("threads")) {
+				threads = parseList(pair[1]);
+			} else {
+				throw new IllegalArgumentException("Unknown argument " + pair[0]);
+			}
+		}
+
+		// Time stands still so every run books the same days, even across midnight
+		Clock systemClock = Clock.systemDefaultZone();
+		DateTime.setClock(Clock.fixed(systemClock.instant(), systemClock.getZone()));
+		File dataDirectory = Files.createTempDirectory("miride-bench").toFile();
+		MiRideBenchmarks benchmarks = new MiRideBenchmarks(new BenchmarkRunner(warmup, round, rounds), dataDirectory);
+		try {
+			for (int bookings : bookingsPerCar) {
+				benchmarks.runCarBenchmarks(Math.min(bookings, MAXIMUM_BOOKINGS));
+			}
+			for (int fleetSize : fleetSizes) {
+				for (int bookings : bookingsPerCar) {
+					benchmarks.runFleetBenchmarks(fleetSize, Math.min(bookings, MAXIMUM_BOOKINGS));
+				}
+			}
+			for (int fleetSize : searchFleetSizes) {
+				benchmarks.runSearchBenchmarks(fleetSize, threads);
+			}
+		} finally {
+			for (File file : dataDirectory.listFiles()) {
+				file.delete();
+			}
+			dataDirectory.delete();
+		}
+	}
+
+	/**
+	 * Method is responsible for measuring the benchmarks of a single
+	 * car, which do not depend on the size of the fleet.
+	 *
+	 * @param bookingsPerCar		current bookings of the car. Takes numeric
+	 * 								input between 0 and 5
+	 * @throws Exception			If a benchmark fails
+	 */
+	public void runCarBenchmarks(final int bookingsPerCar) throws Exception {
+		String params = "bookingsPerCar=" + bookingsPerCar;
+
+		final Car bookedCar = createCar(0, bookingsPerCar);
+		final DateTime freeDay = new DateTime(6);
+		runner.measure("Car.isCarBookedOnDate", params, new BenchmarkRunner.Operation() {
+			public long run() {
+				return bookedCar.isCarBookedOnDate(freeDay) ? 1 : 0;
+			}
+		});
+
+		// Each booking stays with its car, so a fresh car is used after every few bookings
+		final Car[] carToBook = {createCar(0, bookingsPerCar)};
+		final int[] bookingsMade = {0};
+		runner.measure("Car.book", params, new BenchmarkRunner.Operation() {
+			public long run() throws Exception {
+				if (bookingsMade[0] == CAR_BOOK_REUSE) {
+					carToBook[0] = createCar(0, bookingsPerCar);
+					bookingsMade[0] = 0;
+				}
+				bookingsMade[0]++;
+				try {
+					carToBook[0].book("Zelda", "Quinn", freeDay, 1);
+					carToBook[0].completeBooking("Zelda", "Quinn", null, 10);
+					return 1;
+				} catch (InvalidBooking ib) {
+					return 0;
+				}
+			}
+		});
+
+		final DateTime firstDate = new DateTime(1);
+		final DateTime secondDate = new DateTime(1);
+		runner.measure("DateUtilities.datesAreTheSame", params, new BenchmarkRunner.Operation() {
+			public long run() {
+				return DateUtilities.datesAreTheSame(firstDate, secondDate) ? 1 : 0;
+			}
+		});
+	}
+
+	/**
+	 * Method is responsible for measuring the benchmarks that work
+	 * across a whole fleet.
+	 *
+	 * @param fleetSize				number of cars. Takes numeric input
+	 * @param bookingsPerCar		current bookings of each car. Takes numeric
+	 * 								input between 0 and 5
+	 * @throws Exception			If a benchmark fails
+	 */
+	public void runFleetBenchmarks(int fleetSize, int bookingsPerCar) throws Exception {
+		String params = "fleetSize=" + fleetSize + " bookingsPerCar=" + bookingsPerCar;
+
+		final MiRideApplication application = new MiRideApplication();
+		final Car[] cars = new Car[fleetSize];
+		for (int i = 0; i < fleetSize; i++) {
+			cars[i] = createCar(i, bookingsPerCar);
+			application.createCar("SD", cars[i].getRegNo(), "Toyota", "Corolla", "Jane Doe", 4, 0, null);
+			for (int j = 0; j < bookingsPerCar; j++) {
+				application.tryBook(FIRST_NAMES[j], LAST_NAMES[j], new DateTime(j), 1, cars[i].getRegNo());
+			}
+		}
+
+		final DateTime tomorrow = new DateTime(1);
+		runner.measure("MiRideApplication.book(DateTime)", params, new BenchmarkRunner.Operation() {
+			public long run() {
+				return application.book(tomorrow).length;
+			}
+		});
+
+		runner.measure("MiRideApplication.displayAllCars", params, new BenchmarkRunner.Operation() {
+			public long run() {
+				return application.displayAllCars("SD", "A").length();
+			}
+		});
+
+		final MainPersistence persistence = new MainPersistence(new File(dataDirectory, "MainData.txt").getPath(),
+															new File(dataDirectory, "BackUpData.txt").getPath());
+		runner.measure("MainPersistence.saveCars", params, new BenchmarkRunner.Operation() {
+			public long run() throws IOException {
+				persistence.saveCars(Arrays.asList(cars));
+				return 1;
+			}
+		});
+
+		runner.measure("MainPersistence.readData", params, new BenchmarkRunner.Operation() {
+			public long run() throws Exception {
+				return persistence.readData(persistence.getMainFileName(), new Fleet());
+			}
+		});
+	}
+
+	/**
+	 * Method is responsible for measuring how the search for free
+	 * cars scales with the number of threads searching the fleet.
+	 * A third of the cars are booked on the date searched.
+	 *
+	 * @param fleetSize				number of cars. Takes numeric input
+	 * @param threads				thread counts to measure. Takes an array
+	 * 								of numeric input
+	 * @throws Exception			If a benchmark fails
+	 */
+	public void runSearchBenchmarks(int fleetSize, int[] threads) throws Exception {
+		final Fleet fleet = new Fleet();
+		for (int i = 0; i < fleetSize; i++) {
+			fleet.add(createCar(i, i % 3));
+		}
+
+		final DateTime tomorrow = new DateTime(1);
+		for (int threadCount : threads) {
+			final ForkJoinPool pool = new ForkJoinPool(threadCount);
+			try {
+				runner.measure("Fleet.availableOn", "fleetSize=" + fleetSize + " threads=" + threadCount,
+								new BenchmarkRunner.Operation() {
+					public long run() {
+						return fleet.availableOn("SD", tomorrow, pool).length;
+					}
+				});
+			} finally {
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Method is responsible for creating a car booked on each of
+	 * the days starting from today.
+	 *
+	 * @param index					car number, used for its registration
+	 * 								number. Takes numeric input
+	 * @param bookingsPerCar		current bookings of the car. Takes numeric input
+	 * @return						Returns the booked car.
+	 * @throws Exception			If the car could not be created or booked
+	 */
+	private static Car createCar(int index, int bookingsPerCar) throws Exception {
+		Car car = new Car(regNo(index), "Toyota", "Corolla", "Jane Doe", 4);
+		for (int j = 0; j < bookingsPerCar; j++) {
+			car.book(FIRST_NAMES[j], LAST_NAMES[j], new DateTime(j), 1);
+		}
+		return car;
+	}
+
+	/**
+	 * Method is responsible for building a unique registration
+	 * number for a car number.
+	 *
+	 * @param index		car number. Takes numeric input
+	 * @return			Returns three letters followed by three digits.
+	 */
+	private static String regNo(int index) {
+		int letters = index / 1000;
+		StringBuilder sb = new StringBuilder(6);
+		sb.append((char) ('A' + letters / 676 % 26));
+		sb.append((char) ('A' + letters / 26 % 26));
+		sb.append((char) ('A' + letters % 26));
+		sb.append(String.format("%03d", index % 1000));
+		return sb.toString();
+	}
+
+	/**
+	 * Method is responsible for listing the thread counts measured
+	 * by default, doubling from one up to every available core.
+	 *
+	 * @return			Returns the thread counts in increasing order.
+	 */
+	private static int[] defaultThreads() {
+		int cores = Runtime.getRuntime().availableProcessors();
+		int count = 1;
+		for (int threads = 1; threads < cores; threads *= 2) {
+			count++;
+		}
+		int[] threads = new int[count];
+		for (int i = 0; i < count - 1; i++) {
+			threads[i] = 1 << i;
+		}
+		threads[count - 1] = cores;
+		return threads;
+	}
+
+	/**
+	 * Method is responsible for reading a comma separated list
+	 * of numbers.
+	 *
+	 * @param list		list of numbers. Takes string input
+	 * @return			Returns the numbers in the list.
+	 */
+	private static int[] parseList(String list) {
+		String[] items = list.split(",");
+		int[] values = new int[items.length];
+		for (int i = 0; i < items.length; i++) {
+			values[i] = Integer.parseInt(items[i].trim());
+		}
+		return values;
+	}
+}
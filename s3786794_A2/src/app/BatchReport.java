@@ -0,0 +1,137 @@
+package app;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import cars.BookingResult;
+import utilities.ReportUtilities;
+
+/**
+ * BatchReport is the class responsible for recording the outcome
+ * of every request in a bulk booking import, in the order the
+ * requests were read, along with how long the import took.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class BatchReport {
+	private static final int RESULT_WIDTH = 22;
+
+	private BookingResult[] results = new BookingResult[64];
+	private int size = 0;
+	private int[] counts = new int[BookingResult.values().length];
+	private int batches = 0;
+	private long elapsedNanos = 0;
+
+	/**
+	 * Method is responsible for recording the outcome of the next
+	 * request.
+	 *
+	 * @param result		outcome of the request. Takes custom
+	 * 						BookingResult input
+	 */
+	void record(BookingResult result) {
+		if (size == results.length) {
+			results = Arrays.copyOf(results, size * 2);
+		}
+		results[size] = result;
+		size++;
+		counts[result.ordinal()]++;
+	}
+
+	/**
+	 * Method is responsible for recording that a batch of requests
+	 * has been applied.
+	 */
+	void batchApplied() {
+		batches++;
+	}
+
+	/**
+	 * Method is responsible for recording how long the import took.
+	 *
+	 * @param elapsedNanos		time taken. Takes numeric input in nanoseconds
+	 */
+	void finish(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Method is responsible for returning the outcome of a request.
+	 *
+	 * @param index		request position. Takes numeric input between 0
+	 * 					and size() - 1, matching the line it was read from
+	 * @return			Returns the outcome of that request.
+	 */
+	public BookingResult getResult(int index) {
+		if (index >= size) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		return results[index];
+	}
+
+	/**
+	 * Method is responsible for counting the requests with a
+	 * specific outcome.
+	 *
+	 * @param result		outcome. Takes custom BookingResult input
+	 * @return				Returns the number of requests with that outcome.
+	 */
+	public int getCount(BookingResult result) {
+		return counts[result.ordinal()];
+	}
+
+	/**
+	 * Method is responsible for working out how many requests were
+	 * handled each second.
+	 *
+	 * @return		Returns the number of requests per second, or 0 if
+	 * 				no time was recorded.
+	 */
+	public double getThroughput() {
+		if (elapsedNanos == 0) {
+			return 0;
+		}
+		return size * 1000000000.0 / elapsedNanos;
+	}
+
+	// Required getters
+	public int size() {
+		return size;
+	}
+
+	public int getBatches() {
+		return batches;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedNanos / 1000000;
+	}
+
+	/**
+	 * Method is responsible for summarising the import.
+	 *
+	 * @return		Returns the number of requests, the count of each
+	 * 				outcome and the throughput.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(size).append(" requests in ").append(batches).append(" batches, ");
+		sb.append(getElapsedMillis()).append(" ms (");
+		sb.append(Math.round(getThroughput())).append(" requests/s)\n");
+		try {
+			for (BookingResult result : BookingResult.values()) {
+				ReportUtilities.appendPadded(sb, result + ":", RESULT_WIDTH);
+				sb.append(' ');
+				ReportUtilities.appendInteger(sb, counts[result.ordinal()]);
+				sb.append('\n');
+			}
+		} catch (IOException io) {
+			// A StringBuilder never throws
+			throw new UncheckedIOException(io);
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,105 @@
+package app;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import exceptions.*;
+import utilities.DateTime;
+
+/**
+ * BookingEngine is the class responsible for serving booking
+ * requests from many dispatchers at once. Requests are run on a
+ * pool of threads against a shared MiRideApplication, where each
+ * car is locked only while it is being booked, so requests for
+ * different cars run in parallel and a car is never double booked.
+ * The engine needs no maintenance thread for the day to move on.
+ * Today's date is read from the clock whenever a booking is checked,
+ * so dates that have passed are refused, and a car's bookings whose
+ * day has passed are moved into past bookings the next time that car
+ * is used. BookingEngineCheck in the bench directory races many
+ * dispatchers for the same car and day to check this engine.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class BookingEngine {
+	private MiRideApplication application;
+	private ExecutorService dispatchers;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param application		application to book against. Takes custom
+	 * 							MiRideApplication object
+	 * @param threads			number of dispatcher threads. Takes numeric input
+	 */
+	public BookingEngine(MiRideApplication application, int threads) {
+		this.application = application;
+		this.dispatchers = Executors.newFixedThreadPool(threads);
+	}
+
+	/**
+	 * Method is responsible for queuing a booking request to be
+	 * run by one of the dispatcher threads.
+	 *
+	 * @param firstName				user's first name. Takes string input
+	 * @param lastName				user's last name. Takes string input
+	 * @param required				date required. Takes DateTime input
+	 * @param numPassengers			number of passengers. Takes numeric input
+	 * @param registrationNumber	car registration number. Takes string input
+	 * @return						Returns the pending result of the booking,
+	 * 								which is the same message the application
+	 * 								gives for a single booking.
+	 */
+	public Future<String> submitBooking(final String firstName, final String lastName, final DateTime required,
+										final int numPassengers, final String registrationNumber) {
+		return dispatchers.submit(new Callable<String>() {
+			@Override
+			public String call() {
+				try {
+					return application.book(firstName, lastName, required, numPassengers, registrationNumber);
+				} catch (InvalidBooking ib) {
+					return "Booking could not be completed.";
+				} catch (InvalidDate id) {
+					return "Booking could not be completed.";
+				}
+			}
+		});
+	}
+
+	/**
+	 * Method is responsible for queuing a request to complete a
+	 * booking to be run by one of the dispatcher threads.
+	 *
+	 * @param firstName				user's first name. Takes string input
+	 * @param lastName				user's last name. Takes string input
+	 * @param registrationNumber	car registration number. Takes string input
+	 * @param kilometers			kilometers traveled. Takes numeric input
+	 * @return						Returns the pending result of completing
+	 * 								the booking.
+	 */
+	public Future<String> submitCompletion(final String firstName, final String lastName,
+											final String registrationNumber, final double kilometers) {
+		return dispatchers.submit(new Callable<String>() {
+			@Override
+			public String call() {
+				return application.completeBooking(firstName, lastName, registrationNumber, kilometers);
+			}
+		});
+	}
+
+	/**
+	 * Method is responsible for stopping the dispatcher threads
+	 * once every queued request has been run.
+	 *
+	 * @throws InterruptedException		If the wait for queued requests
+	 * 									has been interrupted
+	 */
+	public void shutdown() throws InterruptedException {
+		dispatchers.shutdown();
+		dispatchers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+	}
+}
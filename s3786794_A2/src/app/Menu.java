@@ -37,6 +37,7 @@ public class Menu {
 		String choice = "";
 		
 		application.loadData();
+		application.startMaintenance();
 		
 		do {
 			printMenu();
@@ -227,17 +228,21 @@ public class Menu {
 	/**
 	 * Method is responsible for resolving a Booking
 	 * object's requirements based on either an entered
-	 * date or a traveler's first and last name.
+	 * date, a booking reference or a traveler's first and last name.
 	 * 
 	 * ALGORITHM - Complete booking
 	 * BEGIN
-	 * 		CHECKS if there is a date or registration number input
+	 * 		CHECKS if there is a date, booking reference or registration number input
 	 * 		IF there is a date input	
 	 * 			ASKS for name
 	 * 			ASKS for kilometers traveled
 	 * 			FORMATS date 
 	 * 			SENDS to another method
 	 * 			COMPLETES booking if successful
+	 * 		IF there is a booking reference input	
+	 * 			ASKS for kilometers traveled
+	 * 			SENDS to another method
+	 * 			COMPLETES booking if successful
 	 * 		IF there is a registration number input	
 	 * 			ASKS for name
 	 * 			ASKS for kilometers traveled
@@ -248,7 +253,8 @@ public class Menu {
 	 * ENDS
 	 */
 	private void completeBooking() {
-		System.out.print("Enter Registration or Booking Date:");
+		final int REG_NO_LENGTH = 6;
+		System.out.print("Enter Registration, Booking Date or Booking Reference:");
 		String response = console.nextLine().toUpperCase();
 		
 		String result;
@@ -269,6 +275,12 @@ public class Menu {
 			DateTime dateOfBooking = new DateTime(day, month, year);
 			result = application.completeBooking(firstName, lastName, dateOfBooking, kilometers);
 			System.out.println(result);
+		// User entered the booking reference given when booking
+		} else if (response.length() > REG_NO_LENGTH) {
+			System.out.print("Enter kilometers:");
+			double kilometers = Double.parseDouble(console.nextLine());
+			result = application.completeBooking(response, kilometers);
+			System.out.println(result);
 		} else {
 			System.out.print("Enter First Name:");
 			String firstName = console.nextLine();
@@ -355,7 +367,15 @@ public class Menu {
 		System.out.print("\nEnter sort order(A/D): ");
 		order = console.nextLine().toUpperCase();
 		
-		System.out.println(application.displayAllCars(type, order));
+		// Written as each car is read, so a large fleet is never held as one string
+		Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+		try {
+			application.writeAllCars(out, type, order);
+			out.append('\n');
+			out.flush();
+		} catch (IOException io) {
+			System.out.println("Cars could not be displayed.");
+		}
 	}
 
 	/**
@@ -1,15 +1,33 @@
 package app;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.util.InputMismatchException;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import cars.Booking;
+import cars.BookingResult;
 import cars.Car;
+import cars.Fleet;
 import cars.SilverServiceCar;
 import exceptions.*;
+import persistence.Journal;
 import persistence.MainPersistence;
+import persistence.RecordTokenizer;
+import persistence.SnapshotFormat;
 import utilities.DateTime;
 import utilities.MiRidesUtilities;
 
@@ -24,10 +42,20 @@ import utilities.MiRidesUtilities;
  */
 
 public class MiRideApplication {
-	private Car[] cars = new Car[15];
-	private int itemCount = 0;
-	private String[] availableCars;
-	Car[] sortCars;
+	private Fleet fleet = new Fleet();
+	// Also read by the maintenance thread
+	private volatile Journal journal;
+	private ScheduledExecutorService maintenance;
+	// Changes are made and journaled under the read lock, and the saved files are rewritten
+	// under the write lock, so a change is never both saved and left in the cleared journal
+	private final ReentrantReadWriteLock journalLock = new ReentrantReadWriteLock();
+	private MainPersistence mainPersist = new MainPersistence(SnapshotFormat.fromSystemProperty());
+	private static final String JOURNAL_FILE = "Journal.log";
+	private static final int IMPORT_BATCH_SIZE = 500;
+	private static final int REPORT_PAGE_SIZE = 100;
+	private static final String[] CAR_TYPES = {"SD", "SS"};
+	// Time after midnight that maintenance runs, so the new day has certainly begun
+	private static final long MAINTENANCE_DELAY_MILLIS = 1000;
 	
 	/**
 	 * Method is responsible for fully creating a Car object 
@@ -53,14 +81,29 @@ public class MiRideApplication {
 							int numPassengers, double bookingFee, String refreshments) 
 							throws InputMismatchException, InvalidId, InvalidRefreshments {
 		if(!checkIfCarExists(id)) {
+			Car car = null;
 			if (carType.equals("SD")) {
-				cars[itemCount] = new Car(id, make, model, driverName, numPassengers);
+				car = new Car(id, make, model, driverName, numPassengers);
 			} else if (carType.equals("SS")) {
 				String[] refreshList = refreshments.split(",");
-				cars[itemCount] = new SilverServiceCar(id, make, model, driverName, numPassengers, bookingFee, refreshList);
+				car = new SilverServiceCar(id, make, model, driverName, numPassengers, bookingFee, refreshList);
+			}
+			if (car != null) {
+				boolean added;
+				journalLock.readLock().lock();
+				try {
+					added = fleet.add(car);
+					if (added) {
+						journalCar(car);
+					}
+				} finally {
+					journalLock.readLock().unlock();
+				}
+				if (added) {
+					checkpoint();
+					return "New Car added successfully for registration number: " + car.getRegNo();
+				}
 			}
-			itemCount++;
-			return "New Car added successfully for registration number: " + cars[itemCount-1].getRegNo();
 		}
 		return "Error: Already exists in the system.";
 	}
@@ -68,35 +111,19 @@ public class MiRideApplication {
 	/**
 	 * Method is responsible for checking which cars are available
 	 * based on the date that is required by the user.
+	 * Cars booked on that date are read from the fleet's availability
+	 * index, so each car is visited once without checking its bookings.
 	 * 
 	 * @param dateRequired		date required. Takes in a custom DateTime object
 	 * @return availableCars	returns an array of cars that are  available for 
 	 * 							booking.
 	 */
 	public String[] book(DateTime dateRequired) {
-		int numberOfAvailableCars = 0;
-		// Finds number of available cars to determine the size of the array required.
-		for(int i = 0; i < cars.length; i++) {
-			if(cars[i] != null) {
-				if(!cars[i].isCarBookedOnDate(dateRequired)) {
-					numberOfAvailableCars++;
-				}
-			}
-		}
-		if(numberOfAvailableCars == 0) {
-			String[] result = new String[0];
-			return result;
-		}
-		availableCars = new String[numberOfAvailableCars];
-		int availableCarsIndex = 0;
+		String[] freeCars = fleet.availableOn(null, dateRequired);
+		String[] availableCars = new String[freeCars.length];
 		// Populate available cars with registration numbers
-		for(int i=0; i<cars.length;i++) {
-			if(cars[i] != null) {
-				if(!cars[i].isCarBookedOnDate(dateRequired)) {
-					availableCars[availableCarsIndex] = availableCarsIndex + 1 + ". " + cars[i].getRegNo();
-					availableCarsIndex++;
-				}
-			}
+		for(int i = 0; i < freeCars.length; i++) {
+			availableCars[i] = i + 1 + ". " + freeCars[i];
 		}
 		return availableCars;
 	}
@@ -119,43 +146,137 @@ public class MiRideApplication {
 	{
 		Car car = getCarById(registrationNumber);
 		if(car != null)  {
-			if(car.book(firstName, lastName, required, numPassengers)) {
-
-				String message = "Thank you for your booking. \n" + car.getDriverName() 
-		        + " will pick you up on " + required.getFormattedDate() + ". \n"
-				+ "Your booking reference is: " + car.getBookingID(firstName, lastName, required);
-				return message;
-			} else {
-				String message = "Booking could not be completed.";
-				return message;
+			String message;
+			journalLock.readLock().lock();
+			try {
+				// Hold the car so the booking reference is read and the booking
+				// journaled before another thread changes it
+				synchronized (car) {
+					if(car.book(firstName, lastName, required, numPassengers)) {
+	
+						message = "Thank you for your booking. \n" + car.getDriverName() 
+				        + " will pick you up on " + required.getFormattedDate() + ". \n"
+						+ "Your booking reference is: " + car.getBookingID(firstName, lastName, required);
+					} else {
+						message = "Booking could not be completed.";
+						return message;
+					}
+					journalBooking(car, firstName, lastName, required, numPassengers);
+				}
+			} finally {
+				journalLock.readLock().unlock();
 			}
+			checkpoint();
+			return message;
         } else {
             return "Car with registration number: " + registrationNumber + " was not found.";
         }
 	}
 	
+	/**
+	 * Method is responsible for booking a car without throwing an
+	 * exception when the booking is refused. The booking is journaled
+	 * but the journal is not forced to disk, which is left to the caller.
+	 * 
+	 * @param firstName				user's first name. Takes string input
+	 * @param lastName				user's last name. Takes string input
+	 * @param required				date required. Takes DateTime input
+	 * @param numPassengers			number of passengers. Takes numeric input
+	 * @param registrationNumber	car registration number. Takes string input
+	 * @return						Returns BOOKED if the booking was made, 
+	 * 								otherwise the reason it was refused.
+	 */
+	public BookingResult tryBook(String firstName, String lastName, DateTime required, int numPassengers, 
+								String registrationNumber) {
+		Car car = getCarById(registrationNumber);
+		if (car == null) {
+			return BookingResult.CAR_NOT_FOUND;
+		}
+		BookingResult result;
+		journalLock.readLock().lock();
+		try {
+			synchronized (car) {
+				result = car.tryBook(firstName, lastName, required, numPassengers);
+				if (result.isBooked()) {
+					journalBooking(car, firstName, lastName, required, numPassengers);
+				}
+			}
+		} finally {
+			journalLock.readLock().unlock();
+		}
+		checkpoint();
+		return result;
+	}
+	
 	/**
 	 * Method is responsible for ensuring a Booking object has been
 	 * completed by user's name, booking date when traveled and kilometers
-	 * traveled.
+	 * traveled. The booking is located by passenger and date in one
+	 * lookup, whichever car it belongs to.
 	 * 
 	 * @param firstName				user's first name. Takes string input
 	 * @param lastName				user's last name. Takes string input
-	 * @param registrationNumber	car registration number. Takes string input
+	 * @param dateOfBooking			date of booking. Takes DateTime input
 	 * @param kilometers			kilometers traveled. Takes numeric input
 	 * @return 						Returns string if booking is completed, 
 	 * 								or booking does not exist.
 	 */
 	public String completeBooking(String firstName, String lastName, DateTime dateOfBooking, double kilometers) {
-		// Search all cars for bookings on a particular date.
-		for(int i = 0; i <cars.length; i++) {
-			if (cars[i] != null) {
-				if(cars[i].isCarBookedOnDate(dateOfBooking)) {
-					return cars[i].completeBooking(firstName, lastName, dateOfBooking, kilometers);
+		Booking booking = fleet.findBooking(firstName, lastName, dateOfBooking);
+		if (booking == null) {
+			return "Booking not found.";
+		}
+		return completeBooking(booking.getCar(), firstName, lastName, dateOfBooking, kilometers);
+	}
+	
+	/**
+	 * Method is responsible for ensuring a Booking object has been
+	 * completed by the booking reference given when it was made and
+	 * kilometers traveled. The booking is located in one lookup, 
+	 * whichever car it belongs to.
+	 * 
+	 * @param bookingReference		booking reference. Takes string input
+	 * @param kilometers			kilometers traveled. Takes numeric input
+	 * @return 						Returns string if booking is completed, 
+	 * 								or booking does not exist.
+	 */
+	public String completeBooking(String bookingReference, double kilometers) {
+		Booking booking = fleet.findBooking(bookingReference);
+		if (booking == null) {
+			return "Booking not found.";
+		}
+		return completeBooking(booking.getCar(), booking.getFirstName(), booking.getLastName(), 
+								booking.getBookingDate(), kilometers);
+	}
+	
+	/**
+	 * Method is responsible for completing a booking of a car that
+	 * has been located, and journaling the completion.
+	 * 
+	 * @param car					car booked. Takes custom Car object
+	 * @param firstName				user's first name. Takes string input
+	 * @param lastName				user's last name. Takes string input
+	 * @param dateOfBooking			date of booking. Takes DateTime input
+	 * @param kilometers			kilometers traveled. Takes numeric input
+	 * @return 						Returns string if booking is completed, 
+	 * 								or booking does not exist.
+	 */
+	private String completeBooking(Car car, String firstName, String lastName, DateTime dateOfBooking, 
+									double kilometers) {
+		String result;
+		journalLock.readLock().lock();
+		try {
+			synchronized (car) {
+				result = car.completeBooking(firstName, lastName, dateOfBooking, kilometers);
+				if (result.startsWith("Thank you")) {
+					journalCompletion(car, firstName, lastName, dateOfBooking, kilometers);
 				}
 			}
+		} finally {
+			journalLock.readLock().unlock();
 		}
-		return "Booking not found.";
+		checkpoint();
+		return result;
 	}
 	
 	/**
@@ -172,24 +293,52 @@ public class MiRideApplication {
 	 */
 	public String completeBooking(String firstName, String lastName, String registrationNumber, double kilometers) {
 		String carNotFound = "Car not found";
-		Car car = null;
-		// Search for car with registration number
-		for(int i = 0; i <cars.length; i++) {
-			if (cars[i] != null) {
-				if (cars[i].getRegNo().equals(registrationNumber)) {
-					car = cars[i];
-					break;
-				}
-			}
-		}
+		Car car = getCarById(registrationNumber);
 
 		if (car == null) {
 			return carNotFound;
 		}
-		if (car.getBookingByName(firstName, lastName) != -1) {
-			return car.completeBooking(firstName, lastName, null, kilometers);
+		String result;
+		journalLock.readLock().lock();
+		try {
+			synchronized (car) {
+				DateTime dateOfBooking = earliestBookingDate(car, firstName, lastName);
+				if (dateOfBooking == null) {
+					return "Error: Booking not found.";
+				}
+				// Completed by date, so the journal records exactly which booking was completed
+				result = car.completeBooking(firstName, lastName, dateOfBooking, kilometers);
+				if (result.startsWith("Thank you")) {
+					journalCompletion(car, firstName, lastName, dateOfBooking, kilometers);
+				}
+			}
+		} finally {
+			journalLock.readLock().unlock();
 		}
-		return "Error: Booking not found.";
+		checkpoint();
+		return result;
+	}
+	
+	/**
+	 * Method is responsible for finding the date of the booking a
+	 * passenger would complete by name only, which is their earliest
+	 * current booking of the car.
+	 * 
+	 * @param car				car booked. Takes custom Car object
+	 * @param firstName			user's first name. Takes string input
+	 * @param lastName			user's last name. Takes string input
+	 * @return					Returns the date of the booking, or null if
+	 * 							the passenger has no current booking of the car.
+	 */
+	private DateTime earliestBookingDate(Car car, String firstName, String lastName) {
+		String nameKey = Booking.normalizeName(firstName, lastName);
+		// Current bookings are listed in date order
+		for (Booking booking : car.getCurrentBookings()) {
+			if (booking.getNameKey().equals(nameKey)) {
+				return booking.getBookingDate();
+			}
+		}
+		return null;
 	}
 	
 	/**
@@ -204,16 +353,7 @@ public class MiRideApplication {
 	 * 								booking is completed, or booking does not exist.
 	 */
 	public boolean getBookingByName(String firstName, String lastName, String registrationNumber) {
-		Car car = null;
-		// Search for car with registration number
-		for(int i = 0; i <cars.length; i++) {
-			if (cars[i] != null) {
-				if (cars[i].getRegNo().equals(registrationNumber)) {
-					car = cars[i];
-					break;
-				}
-			}
-		}
+		Car car = fleet.peek(registrationNumber);
 		
 		if(car == null) {
 			return false;
@@ -224,6 +364,118 @@ public class MiRideApplication {
 		return true;
 	}
 	
+	/**
+	 * Method is responsible for importing every booking request of a
+	 * file, using the default batch size.
+	 * 
+	 * @param fileName			file of booking requests. Takes string input
+	 * @return					Returns the outcome of every request.
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	public BatchReport importBookings(String fileName) throws IOException {
+		BufferedReader in = Files.newBufferedReader(Paths.get(fileName), StandardCharsets.UTF_8);
+		try {
+			return importBookings(in, IMPORT_BATCH_SIZE);
+		} finally {
+			in.close();
+		}
+	}
+	
+	/**
+	 * Method is responsible for importing booking requests without
+	 * the menu. Each line holds one request in the form
+	 * regNo,firstName,lastName,dd/mm/yyyy,passengers. Requests are 
+	 * read and applied a batch at a time, and the journal is forced 
+	 * to disk once per batch rather than once per booking. A request
+	 * that cannot be booked is recorded in the report and the import
+	 * carries on with the next one.
+	 * 
+	 * @param in				booking requests. Takes BufferedReader input
+	 * @param batchSize			requests per batch. Takes numeric input
+	 * @return					Returns the outcome of every request, in the
+	 * 							order they were read.
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	public BatchReport importBookings(BufferedReader in, int batchSize) throws IOException {
+		BatchReport report = new BatchReport();
+		RecordTokenizer splitRequest = new RecordTokenizer(',');
+		String[] batch = new String[Math.max(1, batchSize)];
+		long start = System.nanoTime();
+		int batchCount;
+		
+		do {
+			batchCount = 0;
+			String line;
+			while (batchCount < batch.length && (line = in.readLine()) != null) {
+				batch[batchCount] = line;
+				batchCount++;
+			}
+			for (int i = 0; i < batchCount; i++) {
+				report.record(importBooking(splitRequest, batch[i]));
+			}
+			if (batchCount > 0) {
+				syncJournal();
+				report.batchApplied();
+			}
+		} while (batchCount == batch.length);
+		
+		report.finish(System.nanoTime() - start);
+		return report;
+	}
+	
+	/**
+	 * Method is responsible for applying one imported booking request.
+	 * 
+	 * @param splitRequest		reusable field splitter. Takes custom RecordTokenizer
+	 * @param line				booking request. Takes string input
+	 * @return					Returns the outcome of the request.
+	 */
+	private BookingResult importBooking(RecordTokenizer splitRequest, String line) {
+		if (splitRequest.tokenize(line) != 5) {
+			return BookingResult.INVALID_RECORD;
+		}
+		String regNo = splitRequest.getField(0).trim();
+		String firstName = splitRequest.getField(1).trim();
+		String lastName = splitRequest.getField(2).trim();
+		DateTime required = parseImportDate(splitRequest.getField(3).trim());
+		int numPassengers;
+		try {
+			numPassengers = Integer.parseInt(splitRequest.getField(4).trim());
+		} catch (NumberFormatException nf) {
+			return BookingResult.INVALID_RECORD;
+		}
+		if (required == null) {
+			return BookingResult.INVALID_RECORD;
+		}
+		
+		return tryBook(firstName, lastName, required, numPassengers, regNo);
+	}
+	
+	/**
+	 * Method is responsible for reading a date written as dd/mm/yyyy.
+	 * 
+	 * @param date		date of a request. Takes string input
+	 * @return			Returns the date, or null if it is not a valid
+	 * 					date of that form.
+	 */
+	private DateTime parseImportDate(String date) {
+		int firstSlash = date.indexOf('/');
+		int secondSlash = date.indexOf('/', firstSlash + 1);
+		if (firstSlash < 1 || secondSlash < firstSlash + 2 || secondSlash == date.length() - 1) {
+			return null;
+		}
+		try {
+			int day = Integer.parseInt(date.substring(0, firstSlash));
+			int month = Integer.parseInt(date.substring(firstSlash + 1, secondSlash));
+			int year = Integer.parseInt(date.substring(secondSlash + 1));
+			return DateTime.fromEpochDay((int) LocalDate.of(year, month, day).toEpochDay());
+		} catch (NumberFormatException nf) {
+			return null;
+		} catch (DateTimeException invalidDate) {
+			return null;
+		}
+	}
+	
 	/**
 	 * Method is responsible for displaying a specific Car object
 	 * based upon the user's specifications.
@@ -232,12 +484,9 @@ public class MiRideApplication {
 	 * @return			Returns a string of a Car object's details.
 	 */
 	public String displaySpecificCar(String regNo) {
-		for(int i = 0; i < cars.length; i++) {
-			if(cars[i] != null) {
-				if(cars[i].getRegNo().equals(regNo.toUpperCase())) {
-					return cars[i].getDetails();
-				}
-			}
+		Car car = fleet.peek(regNo.toUpperCase());
+		if(car != null) {
+			return car.getDetails();
 		}
 		return "Error: The car could not be located.";
 	}
@@ -267,33 +516,104 @@ public class MiRideApplication {
 	 * 						errors if car does not exist.
 	 */
 	public String displayAvailable(String type, DateTime dateInput) {
-		if (type.equals("SD")) {
-			for (int i = 0; i < cars.length; i++) {
-				if (cars[i] != null) {
-					if (cars[i].getCarType() == "SD") {
-						if (!cars[i].isCarBookedOnDate(dateInput)) {
-							return cars[i].getDetails();
-						}
-					}
-				}
-			}
-			return "Error - No cars found on this date";
-		} else if (type.equals("SS")) {
-			for (int i = 0; i < cars.length; i++) {
-				if (cars[i] != null) {
-					if (cars[i].getCarType() == "SS") {
-						if (!cars[i].isCarBookedOnDate(dateInput)) {
-							return cars[i].getDetails();
-						}
-					}
-				}
+		if (type.equals("SD") || type.equals("SS")) {
+			String[] freeCars = fleet.availableOn(type, dateInput);
+			if (freeCars.length > 0) {
+				return fleet.peek(freeCars[0]).getDetails();
 			}
 			return "Error - No cars found on this date";
 		} else {
 			return "Error - invalid input";
 		}
 	}
-	
+
+	/**
+	 * Method is responsible for listing the cars of a type that are
+	 * free on every day from one date to another.
+	 *
+	 * @param type			car type. Takes in string input
+	 * @param start			first date required. Takes in custom DateTime input
+	 * @param end			last date required. Takes in custom DateTime input
+	 * @return				Returns the numbered registration numbers of the
+	 * 						free cars, which is empty if there are none.
+	 */
+	public String[] availableBetween(String type, DateTime start, DateTime end) {
+		String[] freeCars = fleet.availableBetween(type, start, end);
+		String[] available = new String[freeCars.length];
+		for (int i = 0; i < freeCars.length; i++) {
+			available[i] = i + 1 + ". " + freeCars[i];
+		}
+		return available;
+	}
+
+	/**
+	 * Method is responsible for listing the silver service cars that
+	 * offer a refreshment and are free on a specific date.
+	 *
+	 * @param refreshment	refreshment name. Takes in string input
+	 * @param dateRequired	date required. Takes in custom DateTime input
+	 * @return				Returns the numbered registration numbers of the
+	 * 						free cars, which is empty if there are none.
+	 */
+	public String[] availableOffering(String refreshment, DateTime dateRequired) {
+		String[] freeCars = fleet.availableOffering(refreshment, dateRequired);
+		String[] available = new String[freeCars.length];
+		for (int i = 0; i < freeCars.length; i++) {
+			available[i] = i + 1 + ". " + freeCars[i];
+		}
+		return available;
+	}
+
+	/**
+	 * Method is responsible for counting the cars of a type that
+	 * are free on each day from one date to another.
+	 *
+	 * @param type			car type. Takes in string input
+	 * @param start			first date required. Takes in custom DateTime input
+	 * @param end			last date required. Takes in custom DateTime input
+	 * @return				Returns the number of free cars on each day,
+	 * 						starting with the first date.
+	 */
+	public int[] freeCountsBetween(String type, DateTime start, DateTime end) {
+		return fleet.freeCountsBetween(type, start, end);
+	}
+
+	/**
+	 * Method is responsible for creating a string that shows, for
+	 * each car type, the cars free on every day from one date to
+	 * another and the number of cars free on each of those days.
+	 *
+	 * @param start			first date required. Takes in custom DateTime input
+	 * @param end			last date required. Takes in custom DateTime input
+	 * @return				Returns the availability of each car type, or an
+	 * 						error if the end is before the start.
+	 */
+	public String displayAvailableBetween(DateTime start, DateTime end) {
+		if (end.getEpochDay() < start.getEpochDay()) {
+			return "Error - End date is before start date";
+		}
+		StringBuilder sb = new StringBuilder();
+		for (String type : CAR_TYPES) {
+			sb.append("\n").append(type).append(" cars free from ").append(start.getFormattedDate())
+			  .append(" to ").append(end.getFormattedDate()).append(":\n");
+			String[] available = availableBetween(type, start, end);
+			if (available.length == 0) {
+				sb.append("None\n");
+			}
+			for (String car : available) {
+				sb.append(car).append("\n");
+			}
+
+			sb.append(type).append(" cars free per day:\n");
+			int[] freeCounts = freeCountsBetween(type, start, end);
+			for (int i = 0; i < freeCounts.length; i++) {
+				sb.append(DateTime.fromEpochDay(start.getEpochDay() + i).getFormattedDate())
+				  .append("  ").append(freeCounts[i]).append("\n");
+			}
+		}
+		return sb.toString();
+	}
+
 	/**
 	 * Method is responsible for seeding both regular and silver service
 	 * cars into memory for usage by the user.
@@ -308,16 +628,22 @@ public class MiRideApplication {
 	 * 								has occurred
 	 */
 	public boolean seedData() throws InvalidBooking, InvalidDate, InvalidId, InvalidRefreshments {
-		for(int i = 0; i < cars.length; i++) {
-			if(cars[i] != null) {
-				return false;
-			}
+		if(!fleet.isEmpty()) {
+			return false;
 		}
 		
 		// Seed both regular and silver cars individually
 		seedRegular();
 		seedSilver();
 		
+		// Seeded cars are not journaled, so save them straight away
+		if (journal != null) {
+			try {
+				snapshot(journal);
+			} catch (IOException io) {
+				System.out.println("Seeded data could not be saved.");
+			}
+		}
 		return true;
 	}
 	
@@ -331,28 +657,22 @@ public class MiRideApplication {
 	public void seedRegular() throws InvalidBooking, InvalidDate, InvalidId {
 		// 2 cars not booked
 		Car honda = new Car("SIM194", "Honda", "Accord Euro", "Henry Cavill", 5);
-		cars[itemCount] = honda;
-		itemCount++;
+		fleet.add(honda);
 		
 		Car lexus = new Car("LEX666", "Lexus", "M1", "Angela Landsbury", 3);
-		cars[itemCount] = lexus;
-		itemCount++;
+		fleet.add(lexus);
 		
 		// 2 cars booked
 		Car bmw = new Car("BMW256", "Mini", "Minor", "Barbara Streisand", 4);
-		cars[itemCount] = bmw;
-		itemCount++;
 		bmw.book("Craig", "Cocker", new DateTime(1), 3);
+		fleet.add(bmw);
 		
 		Car audi = new Car("AUD765", "Mazda", "RX7", "Matt Bomer", 6);
-		cars[itemCount] = audi;
-		itemCount++;
 		audi.book("Rodney", "Cocker", new DateTime(3), 4);
+		fleet.add(audi);
 		
 		// 3 bookings, 1 booking complete
 		Car toyota = new Car("TOY765", "Toyota", "Corola", "Tina Turner", 7);
-		cars[itemCount] = toyota;
-		itemCount++;
 		toyota.book("Rodney", "Cocker", new DateTime(1), 3);
 		toyota.book("Craig", "Cocker", new DateTime(2), 7);
 		toyota.book("Alan", "Smith", new DateTime(3), 4);
@@ -360,15 +680,15 @@ public class MiRideApplication {
 		DateTime inSixDays = new DateTime(6);
 		toyota.book("John", "Page", inSixDays, 5);
 		toyota.completeBooking("John", "Page", inSixDays, 50);
+		fleet.add(toyota);
 		
 		// 1 booking, 1 booking completed
 		Car rover = new Car("ROV465", "Honda", "Rover", "Jonathon Ryss Meyers", 7);
-		cars[itemCount] = rover;
-		itemCount++;
 		rover.book("Shawn", "Penn", new DateTime(1), 3);
 		DateTime inTwoDays = new DateTime(2);
 		rover.book("Rodney", "Cocker", inTwoDays, 3);
 		rover.completeBooking("Rodney", "Cocker", inTwoDays, 75);
+		fleet.add(rover);
 	}
 	
 	/**
@@ -383,53 +703,49 @@ public class MiRideApplication {
 		// 2 silver cars not booked
 		String[] refreshment1 = "Cadbury,Lays,Toothpaste,Candy,Ramen".split(",");
 		Car mazda = new SilverServiceCar("MAZ385", "Mazda", "CX-9", "Jason Voorhees", 4, 3.5, refreshment1);
-		cars[itemCount] = mazda;
-		itemCount++;
+		fleet.add(mazda);
 
 		String[] refreshment2 = "Pepsi,7Up,Lollipop".split(",");
 		Car chrysler = new SilverServiceCar("CHR945", "Chrysler", "300 SRT", "Royal Chaos", 5, 3.8, refreshment2);
-		cars[itemCount] = chrysler;
-		itemCount++;
+		fleet.add(chrysler);
 		
 		// 1 booking
 		String[] refreshment3 = "Coke,Scheweppes,Chupa Chups".split(",");
 		Car mitsubishi = new SilverServiceCar("MIT345", "Mitsubishi", "Triton", "Pat Nguyen", 5, 4.6, refreshment3);
-		cars[itemCount] = mitsubishi;
-		itemCount++;
 		mitsubishi.book("Mike", "Wazowski", new DateTime(2), 4);
+		fleet.add(mitsubishi);
 		
 		// 2 bookings
 		String[] refreshment4 = "Dr.Pepper,Smiths,Donuts".split(",");
 		Car ford = new SilverServiceCar("FOR756", "Ford", "Ranger", "Magic Mike", 6, 3.2, refreshment4);
-		cars[itemCount] = ford;
-		itemCount++;
 		ford.book("Jaime", "Drop", new DateTime(1), 5);
 		ford.book("Federico", "Gaytan", new DateTime(2), 3);
+		fleet.add(ford);
 		
 		// 1 booked, 1 completed
 		String[] refreshment5 = "Champagne,Wine,Beer".split(",");
 		Car holden = new SilverServiceCar("HOL396", "Holden", "Commodore", "Nath Walker", 3, 4.5, refreshment5);
-		cars[itemCount] = holden;
-		itemCount++;
 		holden.book("Auduin", "Wrynn", new DateTime(2), 3);
 		DateTime inOneDay = new DateTime(1);
 		holden.book("Kamina", "Simon", inOneDay, 2);
 		holden.completeBooking("Kamina", "Simon", inOneDay, 50);
+		fleet.add(holden);
 		
 		// 1 booked, 1 completed
 		String[] refreshment6 = "Mints,Soda Water,Water".split(",");
 		Car kia = new SilverServiceCar("KIA047", "Kia", "Cerato", "Pike Johann", 4, 5, refreshment6);
-		cars[itemCount] = kia;
-		itemCount++;
 		kia.book("Anthony", "Jig", new DateTime(1), 2);
 		DateTime inTwoDays = new DateTime(2);
 		kia.book("Evan", "Noss", inTwoDays, 2);
 		kia.completeBooking("Evan", "Noss", inTwoDays, 23);
+		fleet.add(kia);
 	}
 
 	/**
 	 * Method is responsible for displaying the details of cars
 	 * currently in the system as determined by user input.
+	 * Cars are read from the fleet already sorted by registration 
+	 * number, in ascending order for "A" and descending order for "D".
 	 * 
 	 * @param type		car type. Takes string input
 	 * @param order		car order. Takes string input
@@ -437,133 +753,118 @@ public class MiRideApplication {
 	 * 					or error messages if car objects do not exist.
 	 */
 	public String displayAllCars(String type, String order) {
-		if(itemCount == 0) {
-			return "No cars have been added to the system.";
-		}
-		
-		// Checks if there is the type of car in the array
-		if (checkExist(type) == false) {
-			return "No cars of that type has been added.";
-		}
-		
-		changeArray(type, order);
-		
 		StringBuilder sb = new StringBuilder();
-		sb.append("\nSummary of all cars: ");
-		sb.append("\n");
-
-		for (int i = 0; i < sortCars.length; i++) {
-			if (sortCars[i] != null) {
-				sb.append(sortCars[i].getDetails());
-			}
+		try {
+			writeAllCars(sb, type, order);
+		} catch (IOException io) {
+			// A StringBuilder never throws
+			throw new UncheckedIOException(io);
 		}
 		return sb.toString();
 	}
 	
 	/**
-	 * Method responsible for selecting cars based on 
-	 * car type, and storing them within another array
-	 * for sorting.
+	 * Method is responsible for displaying the details of one page
+	 * of cars currently in the system as determined by user input.
 	 * 
-	 * @param type		car type. Takes string input
-	 * @param order		car order. Takes string input
+	 * @param type			car type. Takes string input
+	 * @param order			car order. Takes string input
+	 * @param afterRegNo	registration number of the last car shown on the
+	 * 						previous page. Takes string input, or null for
+	 * 						the first page
+	 * @param pageSize		most cars to show. Takes numeric input
+	 * @return 				Returns string details of the page of car objects, 
+	 * 						or error messages if car objects do not exist.
 	 */
-	private void changeArray(String type, String order) {
-		int sortArray = 0;
-		sortCars = new Car[15];
-		
-		if (type.equals("SD")) {
-			for (int m = 0; m < cars.length; m++) {
-				if (cars[m] != null) {
-					if (cars[m].getCarType() == "SD") {
-						sortCars[sortArray] = cars[m];
-						sortArray++;
-					}
-				}
-			}
-			sortMethod(order);
-		} else if (type.equals("SS")) {
-			for (int m = 0; m < cars.length; m++) {
-				if (cars[m] != null) {
-					if (cars[m].getCarType() == "SS") {
-						sortCars[sortArray] = cars[m];
-						sortArray++;
-					}
-				}
-			}
-			sortMethod(order);
+	public String displayAllCars(String type, String order, String afterRegNo, int pageSize) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			writeCarsPage(sb, type, order, afterRegNo, pageSize);
+		} catch (IOException io) {
+			// A StringBuilder never throws
+			throw new UncheckedIOException(io);
 		}
+		return sb.toString();
 	}
 	
 	/**
-	 * Method is responsible for sorting required cars
-	 * based on ascending or descending order.
-	 * Implementation of sorting method is based around
-	 * bubble sorting.
+	 * Method is responsible for writing the details of cars 
+	 * currently in the system straight to their destination. Cars
+	 * are read from the fleet a page at a time and each car is written
+	 * as it is read, so the memory used does not grow with the fleet.
 	 * 
-	 * @param order 	car order. Takes string input
+	 * @param out				destination. Takes Appendable input
+	 * @param type				car type. Takes string input
+	 * @param order				car order. Takes string input
+	 * @throws IOException		If an input or output exception has occurred
 	 */
-	private void sortMethod(String order) {
-		Car temp = null;
+	public void writeAllCars(Appendable out, String type, String order) throws IOException {
+		if (!writeCarsHeader(out, type)) {
+			return;
+		}
+		boolean descending = order.equals("D");
+		String afterRegNo = null;
+		Car[] page;
 		
-		if (order.equals("A")) {
-			for (int i = 0; i < sortCars.length; i++) {
-				for (int j = 1; j < (sortCars.length - i); j++) {
-					if (sortCars[j] != null) {
-						if (sortCars[j - 1].getRegNo().compareTo(sortCars[j].getRegNo()) > 0) {
-							temp = sortCars[j - 1];
-							sortCars[j - 1] = sortCars[j];
-							sortCars[j] = temp;
-						}
-					}
-				}
+		do {
+			page = fleet.sortedByRegNo(type, descending, afterRegNo, REPORT_PAGE_SIZE);
+			for (Car car : page) {
+				car.writeDetails(out);
 			}
-		} else if (order.equals("D")) {
-			for (int i = 0; i < sortCars.length; i++) {
-				for (int j = 1; j < (sortCars.length - i); j++) {
-					if (sortCars[j] != null) {
-						if (sortCars[j - 1].getRegNo().compareTo(sortCars[j].getRegNo()) < 0) {
-							temp = sortCars[j - 1];
-							sortCars[j - 1] = sortCars[j];
-							sortCars[j] = temp;
-						}
-					}
-				}
+			if (page.length > 0) {
+				afterRegNo = page[page.length - 1].getRegNo();
 			}
+		} while (page.length == REPORT_PAGE_SIZE);
+	}
+	
+	/**
+	 * Method is responsible for writing the details of one page of
+	 * cars currently in the system straight to their destination.
+	 * 
+	 * @param out				destination. Takes Appendable input
+	 * @param type				car type. Takes string input
+	 * @param order				car order. Takes string input
+	 * @param afterRegNo		registration number of the last car shown on the
+	 * 							previous page. Takes string input, or null for
+	 * 							the first page
+	 * @param pageSize			most cars to show. Takes numeric input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	public void writeCarsPage(Appendable out, String type, String order, String afterRegNo, 
+								int pageSize) throws IOException {
+		if (!writeCarsHeader(out, type)) {
+			return;
+		}
+		for (Car car : fleet.sortedByRegNo(type, order.equals("D"), afterRegNo, pageSize)) {
+			car.writeDetails(out);
 		}
 	}
-
+	
 	/**
-	 * Method is responsible of required car type
-	 * exists in memory.
+	 * Method is responsible for writing the heading of a list of
+	 * cars, or an error message if there are no cars to list.
 	 * 
-	 * @param type		car type. Takes string input
-	 * @return 			Returns true if car type is  found within memory, 
-	 * 					or false if none of that car type could.
-	 */
-	private boolean checkExist(String type) {
-		if (type.equals("SD")) {
-			for (int i = 0; i < cars.length; i++) {
-				if (cars[i] != null) {
-					if (cars[i].getCarType() == "SD") {
-						return true;
-					} else if (i == cars.length - 1) {
-						return false;
-					}
-				}
-			}
-		} else if (type.equals("SS")) {
-			for (int j = 0; j < cars.length; j++) {
-				if (cars[j] != null) {
-					if (cars[j].getCarType() == "SS") {
-						return true;
-					} else if (j == cars.length - 1) {
-						return false;
-					}
-				}
-			}
+	 * @param out				destination. Takes Appendable input
+	 * @param type				car type. Takes string input
+	 * @return					Returns true if there are cars to list, 
+	 * 							otherwise false.
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	private boolean writeCarsHeader(Appendable out, String type) throws IOException {
+		if(fleet.isEmpty()) {
+			out.append("No cars have been added to the system.");
+			return false;
 		}
-		return false;
+		
+		// Checks if there is the type of car in the fleet
+		if (!fleet.hasType(type)) {
+			out.append("No cars of that type has been added.");
+			return false;
+		}
+		
+		out.append("\nSummary of all cars: ");
+		out.append("\n");
+		return true;
 	}
 	
 	// Required getters
@@ -588,33 +889,22 @@ public class MiRideApplication {
 	 * 					does not exist within memory.
 	 */
 	public boolean checkIfCarExists(String regNo) {
-		Car car = null;
 		if (regNo.length() != 6) {
 			return false;
 		}
-		car = getCarById(regNo);
-		if (car == null) {
-			return false;
-		} else {
-			return true;
-		}
+		return fleet.contains(regNo);
 	}
 	
 	/**
+	 * Method is responsible for locating a Car object within
+	 * the fleet by its registration number.
 	 * 
+	 * @param regNo		registration number. Takes string input
+	 * @return 			Returns the car with that registration number,
+	 * 					or null if it does not exist within memory.
 	 */
 	private Car getCarById(String regNo) {
-		Car car = null;
-
-		for (int i = 0; i < cars.length; i++) {
-			if(cars[i] != null) {
-				if (cars[i].getRegNo().equals(regNo)) {
-					car = cars[i];
-					return car;
-				}
-			}
-		}
-		return car;
+		return fleet.get(regNo);
 	}
 	
 	/**
@@ -630,39 +920,26 @@ public class MiRideApplication {
 	 */
 	public void printDataExists() throws CorruptedFiles, InvalidId, InvalidRefreshments, 
 										InputMismatchException, IOException, NullFile {
-		MainPersistence mainPersist = new MainPersistence();
-		File mainFile = new File("MainData.txt");
-		File backUpFile = new File("BackUpData.txt");
+		File mainFile = new File(mainPersist.getMainFileName());
+		File backUpFile = new File(mainPersist.getBackUpFileName());
 		
 		if (mainFile.exists()) {
-			Car[] carList = mainPersist.readData("MainData.txt");
+			int carsRead = mainPersist.readData(mainPersist.getMainFileName(), fleet);
 			
-			if (carList[0] == null) {
+			if (carsRead == 0) {
 				System.out.println("Main data not found.");
 				System.out.println("Starting up program.");
 			} else {
-				for (int i = 0; i < carList.length; i++) {
-					if (carList[i] != null) {
-						cars[i] = carList[i];
-						itemCount++;
-					}
-				}
 				System.out.println("Main data found, entering into system.");
 				System.out.println("Starting up program...");
 			}
 		} else if (backUpFile.exists()) {
-			Car[] carList = mainPersist.readData("BackUpData.txt");
+			int carsRead = mainPersist.readData(mainPersist.getBackUpFileName(), fleet);
 			
-			if (carList[0] == null) {
+			if (carsRead == 0) {
 				System.out.println("Backup data not found.");
 				System.out.println("Starting up program...");
 			} else {
-				for (int i = 0; i < carList.length; i++) {
-					if (carList[i] != null) {
-						cars[i] = carList[i];
-						itemCount++;
-					}
-				}
 				System.out.println("Back up data found, entering into system.");
 				System.out.println("Starting up program....");
 			}
@@ -681,14 +958,131 @@ public class MiRideApplication {
 	 * 						has occurred
 	 */
 	public void saveCars() throws IOException {
-		MainPersistence mainPersist = new MainPersistence();
-		mainPersist.saveCars(cars);
+		stopMaintenance();
+		if (journal != null) {
+			snapshot(journal);
+			journal.close();
+			journal = null;
+		} else {
+			mainPersist.saveCars(fleet.cars());
+		}
 		System.out.println("Data being saved...");
 	}
 	
+	/**
+	 * Method is responsible for recording a new car in the journal.
+	 * Called while the change is being made.
+	 * 
+	 * @param car		new car. Takes custom Car object
+	 */
+	private void journalCar(Car car) {
+		if (journal != null) {
+			try {
+				journal.carCreated(car);
+			} catch (IOException io) {
+				System.out.println("Change could not be journaled.");
+			}
+		}
+	}
+	
+	/**
+	 * Method is responsible for recording a new booking in the journal.
+	 * Called while the car is held.
+	 * 
+	 * @param car				car booked. Takes custom Car object
+	 * @param firstName			user's first name. Takes string input
+	 * @param lastName			user's last name. Takes string input
+	 * @param required			date required. Takes custom DateTime input
+	 * @param numPassengers		number of passengers. Takes numeric input
+	 */
+	private void journalBooking(Car car, String firstName, String lastName, DateTime required, int numPassengers) {
+		if (journal != null) {
+			try {
+				journal.bookingMade(car.getRegNo(), firstName, lastName, required, numPassengers);
+			} catch (IOException io) {
+				System.out.println("Change could not be journaled.");
+			}
+		}
+	}
+	
+	/**
+	 * Method is responsible for recording a completed booking in 
+	 * the journal. Called while the car is held.
+	 * 
+	 * @param car				car booked. Takes custom Car object
+	 * @param firstName			user's first name. Takes string input
+	 * @param lastName			user's last name. Takes string input
+	 * @param dateOfBooking		date of booking. Takes custom DateTime input
+	 * @param kilometers		kilometers traveled. Takes numeric input
+	 */
+	private void journalCompletion(Car car, String firstName, String lastName, DateTime dateOfBooking, double kilometers) {
+		if (journal != null) {
+			try {
+				journal.bookingCompleted(car.getRegNo(), firstName, lastName, dateOfBooking, kilometers);
+			} catch (IOException io) {
+				System.out.println("Change could not be journaled.");
+			}
+		}
+	}
+	
+	/**
+	 * Method is responsible for forcing journaled changes to disk
+	 * and rewriting the saved files if enough changes have been
+	 * journaled.
+	 */
+	private void syncJournal() {
+		if (journal != null) {
+			try {
+				journal.sync();
+			} catch (IOException io) {
+				System.out.println("Change could not be journaled.");
+			}
+			checkpoint();
+		}
+	}
+	
+	/**
+	 * Method is responsible for rewriting the saved files and 
+	 * clearing the journal once enough changes have been journaled.
+	 * Must not be called while a change is being made.
+	 */
+	private void checkpoint() {
+		Journal current = journal;
+		if (current != null && current.snapshotDue()) {
+			try {
+				snapshot(current);
+			} catch (IOException io) {
+				System.out.println("Data could not be saved.");
+			}
+		}
+	}
+	
+	/**
+	 * Method is responsible for rewriting the saved files and
+	 * clearing the journal while no change is being made, so every
+	 * change is either in the saved files or in the journal.
+	 * 
+	 * @param current		journal to clear. Takes custom Journal object
+	 * @throws IOException	If an input or output exception 
+	 * 						has occurred
+	 */
+	private void snapshot(Journal current) throws IOException {
+		journalLock.writeLock().lock();
+		try {
+			current.snapshot(mainPersist, fleet);
+		} finally {
+			journalLock.writeLock().unlock();
+		}
+	}
+	
 	/**
 	 * Method is responsible for writing out error messages
 	 * if exception has been caught due to data reading errors.
+	 * Changes journaled since the data was last saved are then
+	 * applied, even if the saved data could not be read, and bookings 
+	 * whose day has passed are moved into past bookings. The journal 
+	 * is only opened to record new changes if everything was read, 
+	 * as opening it clears the old changes at the next save.
 	 * 
 	 * @throws CorruptedFiles			If a corrupted files exception has occurred
 	 * @throws InvalidId				If an invalid id exception has  occurred
@@ -696,9 +1090,34 @@ public class MiRideApplication {
 	 * @throws NullFile					If a null file exception has occurred
 	 */
 	public void loadData() throws CorruptedFiles, InvalidId, IOException, NullFile {
+		System.out.println("Accessing data from file...");
+		boolean dataRead = readData(false);
+		boolean journalRead = readData(true);
+		rollOverBookings();
+		if (dataRead && journalRead) {
+			journal = new Journal(JOURNAL_FILE);
+		} else {
+			System.out.println("Journal kept as it was, changes will not be journaled.");
+		}
+	}
+	
+	/**
+	 * Method is responsible for reading either the saved data or
+	 * the journal, writing out an error message if it could not be read.
+	 * 
+	 * @param fromJournal		true to read the journal, false to read the 
+	 * 							saved data. Takes boolean input
+	 * @return					Returns true if it was read, otherwise false.
+	 * @throws IOException 		If an input or output exception has occurred
+	 */
+	private boolean readData(boolean fromJournal) throws IOException {
 		try {
-			System.out.println("Accessing data from file...");
-			printDataExists();
+			if (fromJournal) {
+				replayJournal();
+			} else {
+				printDataExists();
+			}
+			return true;
 		} catch (FileNotFoundException fn) {
 			System.out.println("File not found.");
 		} catch (NoSuchElementException ns) {
@@ -714,5 +1133,130 @@ public class MiRideApplication {
 		} catch (InvalidId id) {
 			System.out.println("regNo input is invalid");
 		}
+		return false;
+	}
+	
+	/**
+	 * Method is responsible for moving the bookings of every car
+	 * whose day has passed into past bookings. Only cars the fleet
+	 * keeps can hold bookings.
+	 */
+	private void rollOverBookings() {
+		for (Car car : fleet.carsInUse()) {
+			car.rollOver();
+		}
+	}
+	
+	/**
+	 * Method is responsible for starting a background thread that
+	 * looks after the fleet just after each midnight, so that no
+	 * request has to wait for it. The thread also forces journaled
+	 * changes to disk whenever they have waited the journal's group
+	 * commit interval, so changes made just before the system goes
+	 * quiet are not left unforced.
+	 */
+	public synchronized void startMaintenance() {
+		if (maintenance != null) {
+			return;
+		}
+		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "MiRide maintenance");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		// Waiting maintenance is dropped once stopped
+		executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+		maintenance = executor;
+		scheduleMaintenance(executor);
+		executor.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				syncJournal();
+			}
+		}, Journal.GROUP_COMMIT_INTERVAL, Journal.GROUP_COMMIT_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Method is responsible for stopping the maintenance thread,
+	 * waiting for maintenance that has already begun to finish.
+	 */
+	public void stopMaintenance() {
+		ScheduledExecutorService executor;
+		synchronized (this) {
+			executor = maintenance;
+			maintenance = null;
+		}
+		if (executor == null) {
+			return;
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Method is responsible for scheduling maintenance for just
+	 * after the coming midnight. Each run schedules the next one, 
+	 * so the time is worked out again when the clocks change.
+	 * 
+	 * @param executor		maintenance thread. Takes ScheduledExecutorService input
+	 */
+	private synchronized void scheduleMaintenance(final ScheduledExecutorService executor) {
+		long delay = DateTime.fromEpochDay(DateTime.currentEpochDay() + 1).getTime() 
+					- DateTime.currentTimeMillis() + MAINTENANCE_DELAY_MILLIS;
+		executor.schedule(new Runnable() {
+			public void run() {
+				runMaintenance();
+				synchronized (MiRideApplication.this) {
+					if (maintenance == executor) {
+						scheduleMaintenance(executor);
+					}
+				}
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Method is responsible for the daily upkeep of the fleet. Today's
+	 * date is read from the clock again, the bookings of every car 
+	 * whose day has passed are moved into past bookings, which frees 
+	 * their days in the fleet's indexes, days that have passed are 
+	 * dropped from the availability index, and the saved files are 
+	 * rewritten so the journal starts the day empty.
+	 */
+	public void runMaintenance() {
+		DateTime.tick();
+		rollOverBookings();
+		fleet.pruneAvailability();
+		Journal current = journal;
+		if (current != null) {
+			try {
+				snapshot(current);
+			} catch (IOException io) {
+				System.out.println("Data could not be saved.");
+			}
+		}
+	}
+	
+	/**
+	 * Method is responsible for applying changes recorded in the
+	 * journal after the data was last saved.
+	 * 
+	 * @throws CorruptedFiles			If a corrupted files exception has occurred
+	 * @throws InvalidId				If an invalid id exception has occurred
+	 * @throws InvalidRefreshments		If an invalid refreshments exception has occurred
+	 * @throws IOException 				If an input or output exception has occurred
+	 */
+	private void replayJournal() throws CorruptedFiles, InvalidId, InvalidRefreshments, IOException {
+		Journal oldJournal = new Journal(JOURNAL_FILE);
+		int recordsRead = oldJournal.replay(mainPersist, fleet);
+		oldJournal.close();
+		if (recordsRead > 0) {
+			System.out.println("Journal found, " + recordsRead + " changes recovered.");
+		}
 	}
 }
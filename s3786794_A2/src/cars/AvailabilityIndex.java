@@ -0,0 +1,193 @@
+package cars;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+
+import utilities.DateTime;
+
+/**
+ * AvailabilityIndex is the class responsible for recording which
+ * fleet slots are booked on each day, so that the cars free on a
+ * given day can be found without asking every car for its bookings.
+ * Each day holds a set of bits, one per fleet slot, which is set
+ * while the car in that slot has a current booking on that day.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class AvailabilityIndex {
+	private HashMap<Integer, BitSet> bookedSlotsByDay = new HashMap<Integer, BitSet>();
+
+	/**
+	 * Method is responsible for marking a fleet slot as booked
+	 * on a specific day.
+	 *
+	 * @param date		date booked. Takes custom DateTime input
+	 * @param slot		fleet slot. Takes numeric input
+	 */
+	public void markBooked(DateTime date, int slot) {
+		int day = date.getEpochDay();
+		BitSet bookedSlots = bookedSlotsByDay.get(day);
+		if (bookedSlots == null) {
+			bookedSlots = new BitSet();
+			bookedSlotsByDay.put(day, bookedSlots);
+		}
+		bookedSlots.set(slot);
+	}
+
+	/**
+	 * Method is responsible for marking a fleet slot as free
+	 * on a specific day.
+	 *
+	 * @param date		date freed. Takes custom DateTime input
+	 * @param slot		fleet slot. Takes numeric input
+	 */
+	public void markFree(DateTime date, int slot) {
+		int day = date.getEpochDay();
+		BitSet bookedSlots = bookedSlotsByDay.get(day);
+		if (bookedSlots != null) {
+			bookedSlots.clear(slot);
+			if (bookedSlots.isEmpty()) {
+				bookedSlotsByDay.remove(day);
+			}
+		}
+	}
+
+	/**
+	 * Method is responsible for returning the fleet slots that
+	 * are booked on a specific day, 64 slots to a word.
+	 *
+	 * @param date		date required. Takes custom DateTime input
+	 * @return			Returns a copy of the booked slots on that day
+	 * 					as returned by BitSet.toLongArray, which is empty
+	 * 					if no car is booked.
+	 */
+	public long[] bookedWordsOn(DateTime date) {
+		BitSet bookedSlots = bookedSlotsByDay.get(date.getEpochDay());
+		if (bookedSlots == null) {
+			return new long[0];
+		}
+		return bookedSlots.toLongArray();
+	}
+
+	/**
+	 * Method is responsible for clearing the fleet slots that are
+	 * booked on a specific day from a set of slots, without copying
+	 * the day's bookings.
+	 *
+	 * @param slots		slots to clear booked slots from. Takes BitSet input
+	 * @param date		date required. Takes custom DateTime input
+	 */
+	public void clearBookedOn(BitSet slots, DateTime date) {
+		BitSet bookedSlots = bookedSlotsByDay.get(date.getEpochDay());
+		if (bookedSlots != null) {
+			slots.andNot(bookedSlots);
+		}
+	}
+
+	/**
+	 * Method is responsible for returning the fleet slots that are
+	 * booked on any day of a range, in one pass over the days.
+	 *
+	 * @param firstDay		first day of the range as days since 01/01/1970.
+	 * 						Takes numeric input
+	 * @param lastDay		last day of the range as days since 01/01/1970.
+	 * 						Takes numeric input
+	 * @return				Returns the slots booked on at least one day of
+	 * 						the range, which is empty if no car is booked.
+	 */
+	public BitSet bookedBetween(int firstDay, int lastDay) {
+		BitSet bookedSlots = new BitSet();
+		for (int day = firstDay; day <= lastDay; day++) {
+			BitSet bookedOnDay = bookedSlotsByDay.get(day);
+			if (bookedOnDay != null) {
+				bookedSlots.or(bookedOnDay);
+			}
+		}
+		return bookedSlots;
+	}
+
+	/**
+	 * Method is responsible for counting how many of a set of
+	 * fleet slots are booked on each day of a range.
+	 *
+	 * @param slots			slots counted. Takes BitSet input
+	 * @param firstDay		first day of the range as days since 01/01/1970.
+	 * 						Takes numeric input
+	 * @param lastDay		last day of the range as days since 01/01/1970.
+	 * 						Takes numeric input
+	 * @return				Returns the number of those slots booked on
+	 * 						each day, starting with the first day.
+	 */
+	public int[] countBookedBetween(BitSet slots, int firstDay, int lastDay) {
+		int[] bookedCounts = new int[lastDay - firstDay + 1];
+		for (int day = firstDay; day <= lastDay; day++) {
+			BitSet bookedOnDay = bookedSlotsByDay.get(day);
+			if (bookedOnDay != null) {
+				BitSet bookedSlots = (BitSet) bookedOnDay.clone();
+				bookedSlots.and(slots);
+				bookedCounts[day - firstDay] = bookedSlots.cardinality();
+			}
+		}
+		return bookedCounts;
+	}
+
+	/**
+	 * Method is responsible for checking if a fleet slot is
+	 * booked on a specific day.
+	 *
+	 * @param date		date required. Takes custom DateTime input
+	 * @param slot		fleet slot. Takes numeric input
+	 * @return			Returns true if the slot is booked, otherwise false.
+	 */
+	public boolean isBooked(DateTime date, int slot) {
+		BitSet bookedSlots = bookedSlotsByDay.get(date.getEpochDay());
+		return bookedSlots != null && bookedSlots.get(slot);
+	}
+
+	/**
+	 * Method is responsible for moving every booked day of one
+	 * fleet slot onto another, clearing whatever the target slot
+	 * held before. Used when a car is moved into a freed slot.
+	 *
+	 * @param from		slot being moved. Takes numeric input
+	 * @param to		slot receiving the bookings. Takes numeric input
+	 */
+	public void moveSlot(int from, int to) {
+		for (BitSet bookedSlots : bookedSlotsByDay.values()) {
+			bookedSlots.set(to, bookedSlots.get(from));
+			bookedSlots.clear(from);
+		}
+	}
+
+	/**
+	 * Method is responsible for dropping every day before a given
+	 * day, and every day no slot is booked on any more, so the index
+	 * only holds days that can still be booked.
+	 *
+	 * @param firstDay		first day kept as days since 01/01/1970.
+	 * 						Takes numeric input
+	 */
+	public void prune(int firstDay) {
+		Iterator<Integer> days = bookedSlotsByDay.keySet().iterator();
+		while (days.hasNext()) {
+			int day = days.next();
+			if (day < firstDay || bookedSlotsByDay.get(day).isEmpty()) {
+				days.remove();
+			}
+		}
+	}
+
+	/**
+	 * Method is responsible for clearing every booked day of
+	 * a fleet slot.
+	 *
+	 * @param slot		fleet slot. Takes numeric input
+	 */
+	public void clearSlot(int slot) {
+		for (BitSet bookedSlots : bookedSlotsByDay.values()) {
+			bookedSlots.clear(slot);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package cars;
+
+import java.util.ArrayList;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * AvailabilitySearch is the class responsible for finding the cars
+ * in a range of fleet slots that are free, which are the slots of the
+ * type wanted that are not booked on the day. Slots are read 64 at a
+ * time from copies of the type's slots and the day's booked slots,
+ * so the free slots are worked out as they are searched. Ranges larger
+ * than the threshold are split in half and searched at the same time
+ * by a fork/join pool, while smaller ranges are searched in order on
+ * the current thread. Cars are returned by registration number, read
+ * from the fleet's packed registration numbers, and always in slot
+ * order no matter how the range was split.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+class AvailabilitySearch extends RecursiveTask<ArrayList<String>> {
+	private static final long serialVersionUID = 1L;
+	private static final int SLOTS_PER_WORD = 64;
+
+	private final int[] regNoCodes;
+	private final int slotCount;
+	private final long[] typeWords;
+	private final long[] bookedWords;
+	private final int fromWord;
+	private final int toWord;
+	private final int threshold;
+
+	/**
+	 * Class constructor for searching every slot of the fleet.
+	 *
+	 * @param regNoCodes		packed registration numbers in slot order. Takes
+	 * 							an array of numeric input
+	 * @param slotCount			number of slots in use. Takes numeric input
+	 * @param typeWords			slots of the type wanted, as returned by
+	 * 							BitSet.toLongArray. Takes an array of long input,
+	 * 							or null for every type
+	 * @param bookedWords		slots booked on the day, as returned by
+	 * 							BitSet.toLongArray. Takes an array of long input
+	 * @param threshold			most slots searched without splitting. Takes
+	 * 							numeric input
+	 */
+	AvailabilitySearch(int[] regNoCodes, int slotCount, long[] typeWords, long[] bookedWords, int threshold) {
+		this(regNoCodes, slotCount, typeWords, bookedWords, 0, (slotCount + SLOTS_PER_WORD - 1) / SLOTS_PER_WORD,
+			Math.max(1, threshold / SLOTS_PER_WORD));
+	}
+
+	/**
+	 * Class constructor for searching a range of words of slots.
+	 *
+	 * @param regNoCodes		packed registration numbers in slot order. Takes
+	 * 							an array of numeric input
+	 * @param slotCount			number of slots in use. Takes numeric input
+	 * @param typeWords			slots of the type wanted. Takes an array of long
+	 * 							input, or null for every type
+	 * @param bookedWords		slots booked on the day. Takes an array of long input
+	 * @param fromWord			first word searched. Takes numeric input
+	 * @param toWord			word after the last word searched. Takes numeric input
+	 * @param threshold			most words searched without splitting. Takes
+	 * 							numeric input
+	 */
+	private AvailabilitySearch(int[] regNoCodes, int slotCount, long[] typeWords, long[] bookedWords, 
+								int fromWord, int toWord, int threshold) {
+		this.regNoCodes = regNoCodes;
+		this.slotCount = slotCount;
+		this.typeWords = typeWords;
+		this.bookedWords = bookedWords;
+		this.fromWord = fromWord;
+		this.toWord = toWord;
+		this.threshold = threshold;
+	}
+
+	@Override
+	protected ArrayList<String> compute() {
+		if (toWord - fromWord <= threshold) {
+			return searchRange();
+		}
+		int middle = (fromWord + toWord) >>> 1;
+		AvailabilitySearch left = new AvailabilitySearch(regNoCodes, slotCount, typeWords, bookedWords, 
+														fromWord, middle, threshold);
+		AvailabilitySearch right = new AvailabilitySearch(regNoCodes, slotCount, typeWords, bookedWords, 
+														middle, toWord, threshold);
+		left.fork();
+		ArrayList<String> rightCars = right.compute();
+		ArrayList<String> availableCars = left.join();
+		availableCars.addAll(rightCars);
+		return availableCars;
+	}
+
+	/**
+	 * Method is responsible for searching the whole range in
+	 * order on the current thread.
+	 *
+	 * @return		Returns the registration numbers of the free cars of
+	 * 				the range in slot order.
+	 */
+	ArrayList<String> searchRange() {
+		ArrayList<String> availableCars = new ArrayList<String>();
+		for (int word = fromWord; word < toWord; word++) {
+			long freeSlots = ~wordOf(bookedWords, word);
+			if (typeWords != null) {
+				freeSlots &= wordOf(typeWords, word);
+			}
+			while (freeSlots != 0) {
+				int slot = word * SLOTS_PER_WORD + Long.numberOfTrailingZeros(freeSlots);
+				if (slot >= slotCount) {
+					break;
+				}
+				availableCars.add(CarStore.decodeRegNo(regNoCodes[slot]));
+				freeSlots &= freeSlots - 1;
+			}
+		}
+		return availableCars;
+	}
+
+	/**
+	 * Method is responsible for reading a word of slots, which
+	 * toLongArray leaves out once every later slot is clear.
+	 *
+	 * @param words		words of slots. Takes an array of long input
+	 * @param word		word read. Takes numeric input
+	 * @return			Returns the word, or no slots if it was left out.
+	 */
+	private static long wordOf(long[] words, int word) {
+		return word < words.length ? words[word] : 0L;
+	}
+}
@@ -1,7 +1,11 @@
 package cars;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import utilities.DateTime;
 import utilities.DateUtilities;
+import utilities.ReportUtilities;
 /*
  * Booking Class
  * Represents a booking in a ride sharing system.
@@ -21,6 +25,7 @@ public class Booking {
 	private String id;
 	private String firstName;
 	private String lastName;
+	private String nameKey;
 	private DateTime dateBooked;
 	private int numPassengers;
 	private double bookingFee;
@@ -29,6 +34,9 @@ public class Booking {
 	private Car car;
 	
 	private final int NAME_MINIMUM_LENGTH = 3;
+	private static final int DETAILS_INDENT = 16;
+	private static final int LABEL_WIDTH = 20;
+	private static final String RECORD_MARKER = "________________________________________\n";
 
 	
 	/**
@@ -44,11 +52,40 @@ public class Booking {
 		generateId(car.getRegNo(), firstName, lastName, required);
 		validateAndSetDate(required);
 		validateName(firstName, lastName);
+		this.nameKey = normalizeName(firstName, lastName);
 		this.numPassengers = numPassengers;
 		this.car = car;
 		this.bookingFee = car.getTripFee();
 	}
 	
+	/**
+	 * Class constructor for a booking that has already been made,
+	 * such as a trip rebuilt from a car's booking history. The details
+	 * are not validated again.
+	 * 
+	 * @param firstName				user's first name. Takes string input
+	 * @param lastName				user's last name. Takes string input
+	 * @param dateBooked			date booked. Takes custom DateTime input
+	 * @param numPassengers			number of passengers. Takes numeric input
+	 * @param bookingFee			booking fee. Takes numeric input
+	 * @param kilometersTravelled	kilometers traveled. Takes numeric input
+	 * @param tripFee				trip fee. Takes numeric input
+	 * @param car					car object. Takes custom Car object
+	 */
+	Booking(String firstName, String lastName, DateTime dateBooked, int numPassengers, 
+			double bookingFee, double kilometersTravelled, double tripFee, Car car) {
+		this.id = buildId(car.getRegNo(), firstName, lastName, dateBooked);
+		this.firstName = firstName;
+		this.lastName = lastName;
+		this.nameKey = normalizeName(firstName, lastName);
+		this.dateBooked = dateBooked;
+		this.numPassengers = numPassengers;
+		this.bookingFee = bookingFee;
+		this.kilometersTravelled = kilometersTravelled;
+		this.tripFee = tripFee;
+		this.car = car;
+	}
+	
 	/**
 	 * Method is responsible for associating user's parameters with
 	 * this Booking object's parameters
@@ -72,26 +109,68 @@ public class Booking {
 	 */
 	public String getDetails() {
 		StringBuilder sb = new StringBuilder();
-		sb.append(String.format("%-16s%-20s\n", " ", getRecordMarker()));
-		sb.append(String.format("%-16s%-20s %s\n", " ", "id:", id));
-		sb.append(String.format("%-16s%-20s $%.2f\n", " ", "Booking Fee:", bookingFee));
-		if(dateBooked != null) {
-			sb.append(String.format("%-16s%-20s %s\n", " ", "Pick Up Date:", dateBooked.getFormattedDate()));
-		} else {
-			sb.append(String.format("%-16s%-20s %s\n", " ", "Pick Up Date:", "Invalid"));
+		try {
+			writeDetails(sb);
+		} catch (IOException io) {
+			// A StringBuilder never throws
+			throw new UncheckedIOException(io);
 		}
-		sb.append(String.format("%-16s%-20s %s\n", " ", "Name:", firstName + " " + lastName));
-		sb.append(String.format("%-16s%-20s %s\n", " ", "Passengers:", numPassengers));
+		return sb.toString();
+	}
+	
+	/**
+	 * Method is responsible for writing all of this object's
+	 * parameters straight to their destination, so that large 
+	 * reports do not have to be built up in memory first.
+	 * 
+	 * @param out				destination. Takes Appendable input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	public void writeDetails(Appendable out) throws IOException {
+		ReportUtilities.appendSpaces(out, DETAILS_INDENT);
+		out.append(RECORD_MARKER).append('\n');
+		writeLabel(out, "id:");
+		out.append(' ').append(id).append('\n');
+		writeLabel(out, "Booking Fee:");
+		out.append(" $");
+		ReportUtilities.appendTwoDecimals(out, bookingFee);
+		out.append('\n');
+		writeLabel(out, "Pick Up Date:");
+		out.append(' ').append(dateBooked != null ? dateBooked.getFormattedDate() : "Invalid").append('\n');
+		writeLabel(out, "Name:");
+		out.append(' ').append(firstName).append(' ').append(lastName).append('\n');
+		writeLabel(out, "Passengers:");
+		out.append(' ').append(String.valueOf(numPassengers)).append('\n');
 		if(kilometersTravelled == 0) {
-		sb.append(String.format("%-16s%-20s %s\n", " ", "Travelled:", "N/A"));
-		sb.append(String.format("%-16s%-20s %s\n", " ", "Trip Fee:", "N/A"));
+			writeLabel(out, "Travelled:");
+			out.append(" N/A\n");
+			writeLabel(out, "Trip Fee:");
+			out.append(" N/A\n");
 		} else {
-			sb.append(String.format("%-16s%-20s %.2f\n", " ", "Travelled:", kilometersTravelled));
-			sb.append(String.format("%-16s%-20s %.2f\n", " ", "Trip Fee:", tripFee));
+			writeLabel(out, "Travelled:");
+			out.append(' ');
+			ReportUtilities.appendTwoDecimals(out, kilometersTravelled);
+			out.append('\n');
+			writeLabel(out, "Trip Fee:");
+			out.append(' ');
+			ReportUtilities.appendTwoDecimals(out, tripFee);
+			out.append('\n');
 		}
-		sb.append(String.format("%-16s%-20s %s\n", " ", "Car Id:", car.getRegNo()));
-		
-		return sb.toString();
+		writeLabel(out, "Car Id:");
+		out.append(' ').append(car.getRegNo()).append('\n');
+	}
+	
+	/**
+	 * Method is responsible for writing the indented label
+	 * of one line of details.
+	 * 
+	 * @param out				destination. Takes Appendable input
+	 * @param label				label of the line. Takes string input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	private void writeLabel(Appendable out, String label) throws IOException {
+		ReportUtilities.appendSpaces(out, DETAILS_INDENT);
+		ReportUtilities.appendPadded(out, label, LABEL_WIDTH);
 	}
 	
 	/**
@@ -104,20 +183,30 @@ public class Booking {
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
+		appendRecord(sb);
+		return sb.toString();
+	}
+	
+	/**
+	 * Method is responsible for writing this Booking object's
+	 * computer readable string onto the end of a builder.
+	 * 
+	 * @param sb		builder to write to. Takes StringBuilder input
+	 */
+	public void appendRecord(StringBuilder sb) {
 		sb.append(id);
-		sb.append(":" + bookingFee);
+		sb.append(':').append(bookingFee);
 		if(dateBooked != null) {
-			sb.append(":" + dateBooked.getEightDigitDate());
+			sb.append(':').append(dateBooked.getEightDigitDate());
 		} else {
-			sb.append(":" + "Invalid");
+			sb.append(":Invalid");
 		}
-		sb.append(":" + firstName + " " + lastName);
-		sb.append(":" + numPassengers);
-		sb.append(":" + kilometersTravelled);
-		sb.append(":" + tripFee);
-		sb.append(":" + car.getRegNo());
-		
-		return sb.toString();
+		sb.append(':').append(firstName);
+		sb.append(':').append(lastName);
+		sb.append(':').append(numPassengers);
+		sb.append(':').append(kilometersTravelled);
+		sb.append(':').append(tripFee);
+		sb.append(':').append(car.getRegNo());
 	}
 	
 	// Required getters
@@ -129,6 +218,10 @@ public class Booking {
 		return lastName;
 	}
 	
+	public String getNameKey() {
+		return nameKey;
+	}
+	
 	public DateTime getBookingDate() {
 		return dateBooked;
 	}
@@ -136,20 +229,25 @@ public class Booking {
 	public String getID() {
 		return id;
 	}
-
-	/**
-	 * Method is responsible for making a new record marker
-	 * to differentiate between different Booking objects.
-	 * 
-	 * @return 		Returns a formatted string of underscores.
-	 */
-	private String getRecordMarker() {
-		StringBuilder sb = new StringBuilder();
-		for (int i = 0; i < 40; i++) {
-			sb.append("_");
-		}
-		sb.append("\n");
-		return sb.toString();
+	
+	public int getNumPassengers() {
+		return numPassengers;
+	}
+	
+	public double getBookingFee() {
+		return bookingFee;
+	}
+	
+	public double getKilometersTravelled() {
+		return kilometersTravelled;
+	}
+	
+	public double getTripFee() {
+		return tripFee;
+	}
+	
+	public Car getCar() {
+		return car;
 	}
 
 	/**
@@ -164,12 +262,41 @@ public class Booking {
 	 * 						do not meet requirements.
 	 */
 	private void generateId(String regNo, String firstName, String lastName, DateTime date) {
-		if(firstName.length() < 3 || lastName.length() < 3  || date == null) {
-			id = "Invalid";
-		} else {
-			id = regNo + firstName.substring(0, 3).toUpperCase() + lastName.substring(0, 3).toUpperCase()
-				+ date.getEightDigitDate();
+		id = buildId(regNo, firstName, lastName, date);
+	}
+	
+	/**
+	 * Method is responsible for building an id from a booking's details.
+	 * 
+	 * @param regNo			registration number. Takes string input
+	 * @param firstName		user's first name. Takes string input
+	 * @param lastName		user's last name. Takes string input
+	 * @param date			date required. Takes custom DateTime input
+	 * @return 				Returns the id, or "Invalid" if the names are
+	 * 						too short or the date is missing.
+	 */
+	static String buildId(String regNo, String firstName, String lastName, DateTime date) {
+		if(firstName == null || lastName == null || firstName.length() < 3 || lastName.length() < 3 
+				|| date == null) {
+			return "Invalid";
 		}
+		return regNo + firstName.substring(0, 3).toUpperCase() + lastName.substring(0, 3).toUpperCase()
+			+ date.getEightDigitDate();
+	}
+
+	/**
+	 * Method is responsible for building the key a passenger's
+	 * bookings are matched by, so that names differing only in case
+	 * belong to the same passenger. Each booking builds its key once
+	 * rather than on every comparison.
+	 * 
+	 * @param firstName		user's first name. Takes string input
+	 * @param lastName		user's last name. Takes string input
+	 * @return				Returns both names in upper case, separated
+	 * 						by a colon.
+	 */
+	public static String normalizeName(String firstName, String lastName) {
+		return String.valueOf(firstName).toUpperCase() + ':' + String.valueOf(lastName).toUpperCase();
 	}
 
 	/**
@@ -0,0 +1,126 @@
+package cars;
+
+import java.util.Arrays;
+
+import utilities.DateTime;
+
+/**
+ * BookingHistory is the class responsible for storing every
+ * completed booking of a car. Instead of keeping one Booking object
+ * per trip, each detail of a trip is kept in its own growable array
+ * of primitives, and a Booking object is only rebuilt when a past
+ * trip needs to be displayed or saved. No space is taken until the
+ * first trip is recorded.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class BookingHistory {
+	public static final int NO_DATE = Integer.MIN_VALUE;
+	private static final int INITIAL_CAPACITY = 4;
+
+	// Shared by every empty history, and never written to
+	private static final String[] NO_NAMES = new String[0];
+	private static final int[] NO_DAYS = new int[0];
+	private static final byte[] NO_PASSENGERS = new byte[0];
+	private static final double[] NO_AMOUNTS = new double[0];
+
+	private String[] firstNames = NO_NAMES;
+	private String[] lastNames = NO_NAMES;
+	private int[] epochDays = NO_DAYS;
+	private byte[] numPassengers = NO_PASSENGERS;
+	private double[] bookingFees = NO_AMOUNTS;
+	private double[] kilometers = NO_AMOUNTS;
+	private double[] tripFees = NO_AMOUNTS;
+	private int size = 0;
+
+	/**
+	 * Method is responsible for recording a completed Booking
+	 * object at the end of the history.
+	 *
+	 * @param booking		completed booking. Takes custom Booking object
+	 */
+	public void add(Booking booking) {
+		if (size == epochDays.length) {
+			grow();
+		}
+		DateTime date = booking.getBookingDate();
+
+		firstNames[size] = booking.getFirstName();
+		lastNames[size] = booking.getLastName();
+		epochDays[size] = date == null ? NO_DATE : date.getEpochDay();
+		numPassengers[size] = (byte) booking.getNumPassengers();
+		bookingFees[size] = booking.getBookingFee();
+		kilometers[size] = booking.getKilometersTravelled();
+		tripFees[size] = booking.getTripFee();
+		size++;
+	}
+
+	/**
+	 * Method is responsible for rebuilding a past Booking object
+	 * from the history.
+	 *
+	 * @param index		position in history. Takes numeric input between
+	 * 					0 and size() - 1
+	 * @param car		car the trip was taken in. Takes custom Car object
+	 * @return			Returns a Booking object holding the details
+	 * 					of that trip.
+	 */
+	public Booking get(int index, Car car) {
+		DateTime date = epochDays[index] == NO_DATE ? null : DateTime.fromEpochDay(epochDays[index]);
+		return new Booking(firstNames[index], lastNames[index], date, numPassengers[index],
+							bookingFees[index], kilometers[index], tripFees[index], car);
+	}
+
+	// Required getters
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public String getFirstName(int index) {
+		return firstNames[index];
+	}
+
+	public String getLastName(int index) {
+		return lastNames[index];
+	}
+
+	public int getEpochDay(int index) {
+		return epochDays[index];
+	}
+
+	public int getNumPassengers(int index) {
+		return numPassengers[index];
+	}
+
+	public double getBookingFee(int index) {
+		return bookingFees[index];
+	}
+
+	public double getTripFee(int index) {
+		return tripFees[index];
+	}
+
+	public double getKilometers(int index) {
+		return kilometers[index];
+	}
+
+	/**
+	 * Method is responsible for doubling the space of every
+	 * history array once they are full.
+	 */
+	private void grow() {
+		int capacity = Math.max(INITIAL_CAPACITY, epochDays.length * 2);
+		firstNames = Arrays.copyOf(firstNames, capacity);
+		lastNames = Arrays.copyOf(lastNames, capacity);
+		epochDays = Arrays.copyOf(epochDays, capacity);
+		numPassengers = Arrays.copyOf(numPassengers, capacity);
+		bookingFees = Arrays.copyOf(bookingFees, capacity);
+		kilometers = Arrays.copyOf(kilometers, capacity);
+		tripFees = Arrays.copyOf(tripFees, capacity);
+	}
+}
@@ -0,0 +1,145 @@
+package cars;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import utilities.DateTime;
+
+/**
+ * BookingIndex is the class responsible for locating the current
+ * bookings of every car in the fleet without asking each car for
+ * its bookings. Bookings are found by their booking id, or by the
+ * normalized name of the passenger who made them together with the
+ * day booked. Every booking of a passenger is also kept so another
+ * booking of theirs on a day can be found once one is completed.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class BookingIndex {
+	private static final String INVALID_ID = "Invalid";
+
+	private HashMap<String, Booking> bookingsById = new HashMap<String, Booking>();
+	private HashMap<String, ArrayList<Booking>> bookingsByName = new HashMap<String, ArrayList<Booking>>();
+	private HashMap<Integer, HashMap<String, Booking>> bookingsByDay = new HashMap<Integer, HashMap<String, Booking>>();
+
+	/**
+	 * Method is responsible for recording a current booking.
+	 *
+	 * @param booking		current booking. Takes custom Booking object
+	 */
+	public void add(Booking booking) {
+		if (!INVALID_ID.equals(booking.getID())) {
+			bookingsById.put(booking.getID(), booking);
+		}
+		ArrayList<Booking> bookings = bookingsByName.get(booking.getNameKey());
+		if (bookings == null) {
+			bookings = new ArrayList<Booking>(2);
+			bookingsByName.put(booking.getNameKey(), bookings);
+		}
+		bookings.add(booking);
+		
+		DateTime date = booking.getBookingDate();
+		if (date != null) {
+			HashMap<String, Booking> dayBookings = bookingsByDay.get(date.getEpochDay());
+			if (dayBookings == null) {
+				dayBookings = new HashMap<String, Booking>();
+				bookingsByDay.put(date.getEpochDay(), dayBookings);
+			}
+			// A passenger booked in two cars on one day is found in the first car booked
+			if (!dayBookings.containsKey(booking.getNameKey())) {
+				dayBookings.put(booking.getNameKey(), booking);
+			}
+		}
+	}
+
+	/**
+	 * Method is responsible for forgetting a booking that is no
+	 * longer current.
+	 *
+	 * @param booking		completed booking. Takes custom Booking object
+	 */
+	public void remove(Booking booking) {
+		if (bookingsById.get(booking.getID()) == booking) {
+			bookingsById.remove(booking.getID());
+		}
+		ArrayList<Booking> bookings = bookingsByName.get(booking.getNameKey());
+		if (bookings != null) {
+			// Compare by reference, two bookings may share every detail
+			for (int i = 0; i < bookings.size(); i++) {
+				if (bookings.get(i) == booking) {
+					bookings.remove(i);
+					break;
+				}
+			}
+			if (bookings.isEmpty()) {
+				bookingsByName.remove(booking.getNameKey());
+			}
+		}
+		
+		DateTime date = booking.getBookingDate();
+		if (date != null) {
+			HashMap<String, Booking> dayBookings = bookingsByDay.get(date.getEpochDay());
+			if (dayBookings != null && dayBookings.get(booking.getNameKey()) == booking) {
+				dayBookings.remove(booking.getNameKey());
+				Booking other = findOnDay(bookings, date.getEpochDay());
+				if (other != null) {
+					dayBookings.put(booking.getNameKey(), other);
+				} else if (dayBookings.isEmpty()) {
+					bookingsByDay.remove(date.getEpochDay());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Method is responsible for locating a current booking by its id.
+	 *
+	 * @param id		booking id. Takes string input
+	 * @return			Returns the booking, or null if no current
+	 * 					booking has that id.
+	 */
+	public Booking get(String id) {
+		return bookingsById.get(id);
+	}
+
+	/**
+	 * Method is responsible for locating the current booking a
+	 * passenger made for a specific day.
+	 *
+	 * @param epochDay		day booked. Takes numeric input of days
+	 * 						since 1 January 1970
+	 * @param nameKey		normalized passenger name. Takes string input
+	 * 						built by Booking.normalizeName
+	 * @return				Returns the booking, or null if the passenger
+	 * 						has no booking on that day.
+	 */
+	public Booking getByDay(int epochDay, String nameKey) {
+		HashMap<String, Booking> dayBookings = bookingsByDay.get(epochDay);
+		if (dayBookings == null) {
+			return null;
+		}
+		return dayBookings.get(nameKey);
+	}
+
+	/**
+	 * Method is responsible for finding another booking of a passenger
+	 * on a day, once the booking indexed for that day has been removed.
+	 *
+	 * @param bookings		passenger's remaining bookings. Takes list of
+	 * 						Booking objects, or null if none remain
+	 * @param epochDay		day booked. Takes numeric input
+	 * @return				Returns the booking, or null if there is none.
+	 */
+	private Booking findOnDay(ArrayList<Booking> bookings, int epochDay) {
+		if (bookings == null) {
+			return null;
+		}
+		for (Booking other : bookings) {
+			if (other.getBookingDate() != null && other.getBookingDate().getEpochDay() == epochDay) {
+				return other;
+			}
+		}
+		return null;
+	}
+}
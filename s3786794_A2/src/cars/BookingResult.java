@@ -0,0 +1,39 @@
+package cars;
+
+/**
+ * BookingResult is the enum responsible for listing the outcomes
+ * of a booking request, so that requests handled in bulk can report
+ * why each one was accepted or refused without throwing exceptions.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public enum BookingResult {
+	// Booking was made
+	BOOKED,
+	// Request could not be read, such as a missing field or a non numeric value
+	INVALID_RECORD,
+	// No car has the requested registration number
+	CAR_NOT_FOUND,
+	// Date is in the past or more than a week away
+	INVALID_DATE,
+	// Car already has five current bookings
+	FULLY_BOOKED,
+	// Car is already booked on the date
+	DATE_UNAVAILABLE,
+	// Number of passengers is zero or more than the car can carry
+	INVALID_PASSENGERS,
+	// Silver service car has no refreshments or its booking fee is too low
+	SERVICE_UNAVAILABLE,
+	// Silver service car is booked in the past or more than three days away
+	OUTSIDE_SERVICE_DAYS;
+
+	/**
+	 * Method is responsible for checking if a booking was made.
+	 *
+	 * @return		Returns true if the result is BOOKED, otherwise false.
+	 */
+	public boolean isBooked() {
+		return this == BOOKED;
+	}
+}
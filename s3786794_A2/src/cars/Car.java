@@ -1,11 +1,16 @@
 package cars;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.InputMismatchException;
+import java.util.regex.Pattern;
 
 import exceptions.*;
 import utilities.DateTime;
 import utilities.DateUtilities;
 import utilities.MiRidesUtilities;
+import utilities.ReportUtilities;
+import utilities.StringDictionary;
 
 /*
  * Class:		Car
@@ -16,6 +21,16 @@ import utilities.MiRidesUtilities;
 /**
  * Car is the class responsible for creating a new Car object
  * and ensuring the required parameters are correct.
+ * Methods that read or change bookings lock this car only, so
+ * different cars can be booked by different threads at once.
+ * Current bookings are kept in a rolling calendar with one slot for
+ * each day of the booking window, so a booking is found from its day
+ * alone. Bookings whose day has passed are moved into past bookings
+ * the first time the car is used on a new day.
+ * To keep large fleets small, makes and models are shared between
+ * cars, and a car's calendar and history take no space until it is
+ * first booked. A fleet only keeps Car objects for cars that are
+ * booked or in use, and stores the details of the rest as columns.
  * 
  * @author Peter Bui : s3786794
  * @version 1.0
@@ -30,17 +45,37 @@ public class Car {
 	protected int passengerCapacity;
 	protected String carType;
 
-	// Tracking bookings
+	// Tracking bookings, current bookings by day of the booking window
 	protected Booking[] currentBookings;
-	protected Booking[] pastBookings;
+	protected int currentBookingCount = 0;
+	protected BookingHistory pastBookings;
 	protected boolean available;
-	protected int bookingSpotAvailable = 0;
 	protected double tripFee = 0;
+	// Day expired bookings were last moved into past bookings
+	private int rolledOverDay;
+
+	// Fleet this car belongs to and its position within it, -1 if not part of one
+	Fleet fleet;
+	int fleetSlot = -1;
 
 	// Constants
+	public static final String CURRENT_BOOKING_MARKER = "C|";
+	public static final String PAST_BOOKING_MARKER = "P|";
 	private final double STANDARD_BOOKING_FEE = 1.5;
 	private final int MAXIUM_PASSENGER_CAPACITY = 10;
 	private final int MINIMUM_PASSENGER_CAPACITY = 1;
+	private static final int MAXIMUM_BOOKINGS = 5;
+	// Days a booking can be made ahead, as checked by DateUtilities.dateIsNotMoreThan7Days
+	private static final int BOOKING_WINDOW_DAYS = 7;
+	private static final int LABEL_WIDTH = 15;
+	private static final String RECORD_MARKER = 
+			"____________________________________________________________\n";
+	private static final Pattern MODEL_PATTERN = Pattern.compile("[a-zA-Z0-9._-]+ ?[a-zA-Z0-9._-]+");
+	private static final Pattern DRIVER_PATTERN = Pattern.compile("[a-zA-Z._-]+ ?[a-zA-Z._-]+ ?[a-zA-Z._-]+");
+	// Shared by every car with no current bookings, and never written to
+	private static final Booking[] NO_BOOKINGS = new Booking[BOOKING_WINDOW_DAYS];
+	// Few makes and models are shared by many cars
+	private static final StringDictionary VEHICLE_NAMES = new StringDictionary();
 
 	/**
 	 * Class constructor.
@@ -60,14 +95,37 @@ public class Car {
 		setRegNo(regNo); // Validates and sets registration number
 		setPassengerCapacity(passengerCapacity); // Validates and sets passenger capacity
 
-		this.make = make;
-		this.model = model;
+		this.make = VEHICLE_NAMES.intern(make);
+		this.model = VEHICLE_NAMES.intern(model);
 		this.driverName = driverName;
 		this.tripFee = STANDARD_BOOKING_FEE;
 		this.carType = "SD";
 		available = true;
-		currentBookings = new Booking[5];
-		pastBookings = new Booking[15];
+		currentBookings = NO_BOOKINGS;
+		pastBookings = new BookingHistory();
+		rolledOverDay = DateTime.currentEpochDay();
+	}
+	
+	/**
+	 * Class constructor for a car whose details are stored in the
+	 * columns of a fleet. The details were checked when the car was
+	 * first created, so they are not checked again.
+	 * 
+	 * @param store		columns holding the car. Takes custom CarStore object
+	 * @param slot		slot of the car. Takes numeric input
+	 */
+	Car(CarStore store, int slot) {
+		this.regNo = store.getRegNo(slot);
+		this.make = VEHICLE_NAMES.intern(store.getMake(slot));
+		this.model = VEHICLE_NAMES.intern(store.getModel(slot));
+		this.driverName = store.getDriverName(slot);
+		this.passengerCapacity = store.getPassengerCapacity(slot);
+		this.tripFee = store.getTripFee(slot);
+		this.carType = "SD";
+		available = true;
+		currentBookings = NO_BOOKINGS;
+		pastBookings = new BookingHistory();
+		rolledOverDay = DateTime.currentEpochDay();
 	}
 
 	/*
@@ -114,28 +172,62 @@ public class Car {
 	 * @throws InvalidBooking	If an invalid booking exception has occurred
 	 * @throws InvalidDate		If an invalid date exception has occurred
 	 */
-	public boolean book(String firstName, String lastName, DateTime required, int numPassengers) 
+	public synchronized boolean book(String firstName, String lastName, DateTime required, int numPassengers) 
 						throws InvalidBooking, InvalidDate {
-		boolean booked = false;
-		
+		switch (tryBook(firstName, lastName, required, numPassengers)) {
+		case BOOKED:
+			return true;
+		case INVALID_DATE:
+			throw new InvalidDate();
+		case SERVICE_UNAVAILABLE:
+		case OUTSIDE_SERVICE_DAYS:
+			return false;
+		default:
+			throw new InvalidBooking();
+		}
+	}
+	
+	/**
+	 * Method is responsible for allowing a Booking object to be
+	 * associated with this car object, reporting why a booking was
+	 * refused instead of throwing an exception.
+	 * 
+	 * @param firstName			user's first name. Takes string input
+	 * @param lastName			user's last name. Takes string input
+	 * @param required			date required. Takes custom DateTime input
+	 * @param numPassengers		number of passengers. Takes numeric input
+	 * @return					Returns BOOKED if the booking was placed in
+	 * 							memory, otherwise the first requirement the
+	 * 							booking did not meet.
+	 */
+	public synchronized BookingResult tryBook(String firstName, String lastName, DateTime required, int numPassengers) {
+		rollOverOnDayChange();
 		// Does car have five bookings
 		available = bookingAvailable();
-		boolean dateAvailable = notCurrentlyBookedOnDate(required);
+		
 		// Date is within range, not in past and within the next week
-		boolean dateValid = dateIsValid(required);
+		if (!dateIsValid(required)) {
+			return BookingResult.INVALID_DATE;
+		}
+		if (!available) {
+			return BookingResult.FULLY_BOOKED;
+		}
+		if (!notCurrentlyBookedOnDate(required)) {
+			return BookingResult.DATE_UNAVAILABLE;
+		}
 		// Number of passengers does not exceed the passenger capacity and is not zero.
-		boolean validPassengerNumber = numberOfPassengersIsValid(numPassengers);
+		if (!numberOfPassengersIsValid(numPassengers)) {
+			return BookingResult.INVALID_PASSENGERS;
+		}
 
-		// Booking is permissible
-		if (available && dateAvailable && dateValid && validPassengerNumber) {
-			Booking booking = new Booking(firstName, lastName, required, numPassengers, this);
-			currentBookings[bookingSpotAvailable] = booking;
-			bookingSpotAvailable++;
-			booked = true;
-		} else {
-			throw new InvalidBooking();
+		Booking booking = new Booking(firstName, lastName, required, numPassengers, this);
+		allocateCalendar();
+		currentBookings[calendarSlot(required.getEpochDay())] = booking;
+		currentBookingCount++;
+		if (fleet != null) {
+			fleet.bookingAdded(this, booking);
 		}
-		return booked;
+		return BookingResult.BOOKED;
 	}
 
 	/**
@@ -151,9 +243,10 @@ public class Car {
 	 * 							otherwise returns an error message that booking 
 	 * 							could not be completed.
 	 */
-	public String completeBooking(String firstName, String lastName, DateTime dateOfBooking, double kilometers) {
+	public synchronized String completeBooking(String firstName, String lastName, DateTime dateOfBooking, double kilometers) {
 		int bookingIndex;
 		
+		rollOverOnDayChange();
 		if (dateOfBooking == null) {
 			// Find booking in current bookings by name of passenger
 			bookingIndex = getBookingByName(firstName, lastName);
@@ -178,16 +271,36 @@ public class Car {
 	 * 							date, or false if car is not booked on that date 
 	 * 							at all.
 	 */
-	public boolean isCarBookedOnDate(DateTime dateRequired) {
-		boolean carIsBookedOnDate = false;
-		for (int i = 0; i < currentBookings.length; i++) {
-			if (currentBookings[i] != null) {
-				if (DateUtilities.datesAreTheSame(dateRequired, currentBookings[i].getBookingDate())) {
-					carIsBookedOnDate = true;
-				}
+	public synchronized boolean isCarBookedOnDate(DateTime dateRequired) {
+		rollOverOnDayChange();
+		return !notCurrentlyBookedOnDate(dateRequired);
+	}
+	
+	/**
+	 * Method is responsible for moving every current booking whose
+	 * day has passed into past bookings, freeing its day of the
+	 * calendar. An expired booking is recorded as a trip of no
+	 * kilometers.
+	 */
+	public synchronized void rollOver() {
+		int today = DateTime.currentEpochDay();
+		for (int slot = 0; slot < currentBookings.length; slot++) {
+			Booking booking = currentBookings[slot];
+			if (booking != null && booking.getBookingDate().getEpochDay() < today) {
+				expireBooking(slot);
 			}
 		}
-		return carIsBookedOnDate;
+		rolledOverDay = today;
+	}
+	
+	/**
+	 * Method is responsible for rolling the calendar over if the
+	 * day has changed since it was last rolled over.
+	 */
+	protected void rollOverOnDayChange() {
+		if (DateTime.currentEpochDay() != rolledOverDay) {
+			rollOver();
+		}
 	}
 	
 	/**
@@ -201,18 +314,12 @@ public class Car {
 	 * 							otherwise returns an error message if parameters 
 	 * 							do not match requirements.
 	 */
-	public String getBookingID(String firstName, String lastName, DateTime dateOfBooking) {
+	public synchronized String getBookingID(String firstName, String lastName, DateTime dateOfBooking) {
 		System.out.println();
-		for (int i = 0; i < currentBookings.length; i++) {
-			if (currentBookings[i] != null) {
-				Booking booking = currentBookings[i];
-				boolean firstNameMatch = booking.getFirstName().toUpperCase().equals(firstName.toUpperCase());
-				boolean lastNameMatch = booking.getLastName().toUpperCase().equals(lastName.toUpperCase());
-				int days = DateTime.diffDays(dateOfBooking, booking.getBookingDate());
-				if (firstNameMatch && lastNameMatch && days == 0) {
-					return booking.getID();
-				}
-			}
+		rollOverOnDayChange();
+		int bookingIndex = findBooking(Booking.normalizeName(firstName, lastName), dateOfBooking);
+		if (bookingIndex != -1) {
+			return currentBookings[bookingIndex].getID();
 		}
 		return "Booking not found";
 	}
@@ -226,19 +333,38 @@ public class Car {
 	 * 				about this car and it's associated
 	 * 				bookings.
 	 */
-	public String getDetails() {
+	public synchronized String getDetails() {
 		StringBuilder sb = new StringBuilder();
-
-		sb.append(printDetails());
-		sb.append(printCurrentBook());
-		sb.append(printPastBook());
-		
+		try {
+			writeDetails(sb);
+		} catch (IOException io) {
+			// A StringBuilder never throws
+			throw new UncheckedIOException(io);
+		}
 		return sb.toString();
 	}
+	
+	/**
+	 * Method is responsible for writing this Car object's details,
+	 * current bookings and past bookings straight to their destination,
+	 * so that a report of many cars never has to be held in memory.
+	 * 
+	 * @param out				destination. Takes Appendable input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	public synchronized void writeDetails(Appendable out) throws IOException {
+		rollOverOnDayChange();
+		writeSummary(out);
+		writeCurrentBookings(out);
+		writePastBookings(out);
+	}
 
 	/**
 	 * Method is responsible for returning a computer
 	 * readable string.
+	 * The first line holds this car's details, followed by one line
+	 * per current booking starting with CURRENT_BOOKING_MARKER and one
+	 * line per past booking starting with PAST_BOOKING_MARKER.
 	 * 
 	 * @return 		Returns a formatted, computer readable
 	 * 				string of this car and it's associated
@@ -246,35 +372,109 @@ public class Car {
 	 */
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
+		appendRecord(sb);
+		return sb.toString();
+	}
+	
+	/**
+	 * Method is responsible for writing this car's computer readable
+	 * string onto the end of a builder, so that many cars can share 
+	 * one builder when being saved.
+	 * 
+	 * @param sb		builder to write to. Takes StringBuilder input
+	 */
+	public synchronized void appendRecord(StringBuilder sb) {
+		rollOverOnDayChange();
+		appendFirst(sb);
+		sb.append('\n');
 		
-		if (!hasBookings(currentBookings)) {
-			sb.append(firstBuilder());
-			sb.append("\n");
+		for (Booking booking : bookingsByDate()) {
+			sb.append(CURRENT_BOOKING_MARKER);
+			booking.appendRecord(sb);
+			sb.append('\n');
 		}
 		
-		if (hasBookings(currentBookings)) {
-			sb.append(firstBuilder());
-			sb.append("|");
-			for (int i = 0; i < currentBookings.length; i++) {
-				if (currentBookings[i] != null) {
-					sb.append(currentBookings[i].toString());
-				}
-			}
-			sb.append("\n");
+		for (int i = 0; i < pastBookings.size(); i++) {
+			sb.append(PAST_BOOKING_MARKER);
+			pastBookings.get(i, this).appendRecord(sb);
+			sb.append('\n');
 		}
-		
-		if (hasBookings(pastBookings)) {
-			sb.append(firstBuilder());
-			sb.append("|");
-			for (int i = 0; i < pastBookings.length; i++) {
-				if (pastBookings[i] != null) {
-					sb.append(pastBookings[i].toString());
-				}
+	}
+	
+	/**
+	 * Method is responsible for placing a booking read from an
+	 * external file back into this car's current bookings. The 
+	 * booking is not validated again.
+	 * 
+	 * @param firstName				user's first name. Takes string input
+	 * @param lastName				user's last name. Takes string input
+	 * @param dateBooked			date booked. Takes custom DateTime input
+	 * @param numPassengers			number of passengers. Takes numeric input
+	 * @param bookingFee			booking fee. Takes numeric input
+	 * @return						Returns true if the booking was restored,
+	 * 								or false if the same passenger is already 
+	 * 								booked on that date. A booking with no date, 
+	 * 								or whose day has passed and whose slot holds 
+	 * 								a later booking, is moved into past bookings 
+	 * 								instead and false is returned.
+	 * @throws InvalidBooking		If the booking clashes with another current 
+	 * 								booking of this car, or this car has no free
+	 * 								booking slot left
+	 */
+	public synchronized boolean restoreCurrentBooking(String firstName, String lastName, DateTime dateBooked, 
+										int numPassengers, double bookingFee) throws InvalidBooking {
+		Booking booking = new Booking(firstName, lastName, dateBooked, numPassengers, bookingFee, 0, 0, this);
+		if (dateBooked == null) {
+			pastBookings.add(booking);
+			return false;
+		}
+		int day = dateBooked.getEpochDay();
+		int slot = calendarSlot(day);
+		if (currentBookings[slot] != null) {
+			Booking booked = currentBookings[slot];
+			int bookedDay = booked.getBookingDate().getEpochDay();
+			// Restoring a booking already held, such as when a journal is replayed twice
+			if (bookedDay == day && booked.getNameKey().equals(booking.getNameKey())) {
+				return false;
+			}
+			// Only one of two bookings sharing a slot can still be current
+			if (bookedDay == day || Math.min(bookedDay, day) >= DateTime.currentEpochDay()) {
+				throw new InvalidBooking();
 			}
-			sb.append("\n");
+			if (day < bookedDay) {
+				pastBookings.add(booking);
+				return false;
+			}
+			expireBooking(slot);
 		}
-		
-		return sb.toString();
+		if (currentBookingCount == MAXIMUM_BOOKINGS) {
+			throw new InvalidBooking();
+		}
+		allocateCalendar();
+		currentBookings[slot] = booking;
+		currentBookingCount++;
+		if (fleet != null) {
+			fleet.bookingAdded(this, booking);
+		}
+		return true;
+	}
+	
+	/**
+	 * Method is responsible for placing a completed booking read 
+	 * from an external file back into this car's past bookings.
+	 * 
+	 * @param firstName				user's first name. Takes string input
+	 * @param lastName				user's last name. Takes string input
+	 * @param dateBooked			date booked. Takes custom DateTime input
+	 * @param numPassengers			number of passengers. Takes numeric input
+	 * @param bookingFee			booking fee. Takes numeric input
+	 * @param kilometersTravelled	kilometers traveled. Takes numeric input
+	 * @param tripFee				trip fee. Takes numeric input
+	 */
+	public synchronized void restorePastBooking(String firstName, String lastName, DateTime dateBooked, 
+										int numPassengers, double bookingFee, double kilometersTravelled, double tripFee) {
+		pastBookings.add(new Booking(firstName, lastName, dateBooked, numPassengers, 
+									bookingFee, kilometersTravelled, tripFee, this));
 	}
 	
 	/**
@@ -286,105 +486,119 @@ public class Car {
 	 */
 	public String firstBuilder() {
 		StringBuilder sb = new StringBuilder();
-		sb.append(regNo + ":" + make + ":" + model);
+		appendFirst(sb);
+		return sb.toString();
+	}
+	
+	/**
+	 * Method is responsible for writing the first part of this 
+	 * Car object's computer readable string onto the end of a builder.
+	 * 
+	 * @param sb		builder to write to. Takes StringBuilder input
+	 */
+	protected void appendFirst(StringBuilder sb) {
+		sb.append(regNo).append(':').append(make).append(':').append(model);
 		
 		if (driverName != null) {
-			sb.append(":" + driverName);
+			sb.append(':').append(driverName);
 		}
 		
-		sb.append(":" + passengerCapacity);
+		sb.append(':').append(passengerCapacity);
 		
 		if (bookingAvailable()) {
-			sb.append(":" + "YES");
+			sb.append(":YES");
 		} else {
-			sb.append(":" + "NO");
+			sb.append(":NO");
 		}
 		
-		sb.append(":" + tripFee);
-		
-		return sb.toString();
+		sb.append(':').append(tripFee);
 	}
 	
 	/**
-	 * Method is responsible for returning this car
-	 * object's details as a formatted string.
+	 * Method is responsible for writing this car
+	 * object's details.
 	 * 
-	 * @return		Returns this car's details as a 
-	 * 				formatted string.
+	 * @param out				destination. Takes Appendable input
+	 * @throws IOException		If an input or output exception has occurred
 	 */
-	protected String printDetails() {
-		StringBuilder sb = new StringBuilder();
-		
-		sb.append(getRecordMarker());
-		sb.append(String.format("%-15s %s\n", "Reg No:", regNo));
-		sb.append(String.format("%-15s %s\n", "Make & Model:", make + " " + model));
+	protected void writeSummary(Appendable out) throws IOException {
+		out.append(getRecordMarker());
+		writeLabel(out, "Reg No:");
+		out.append(regNo).append('\n');
+		writeLabel(out, "Make & Model:");
+		out.append(make).append(' ').append(model).append('\n');
 
-		sb.append(String.format("%-15s %s\n", "Driver Name:", driverName));
-		sb.append(String.format("%-15s %s\n", "Capacity:", passengerCapacity));
-		sb.append(String.format("%-15s %s\n", "Standard Fee:", "$" + tripFee));
+		writeLabel(out, "Driver Name:");
+		out.append(driverName).append('\n');
+		writeLabel(out, "Capacity:");
+		out.append(String.valueOf(passengerCapacity)).append('\n');
+		writeLabel(out, "Standard Fee:");
+		out.append('$').append(String.valueOf(tripFee)).append('\n');
 
+		writeLabel(out, "Available:");
 		if (bookingAvailable()) {
-			sb.append(String.format("%-15s %s\n", "Available:", "YES"));
+			out.append("YES\n");
 		} else {
-			sb.append(String.format("%-15s %s\n", "Available:", "NO"));
+			out.append("NO\n");
 		}
-		
-		return sb.toString();
 	}
 	
 	/**
-	 * Method is responsible for returning a formatted
-	 * string of current bookings this Car object has.
+	 * Method is responsible for writing the label of one
+	 * line of this car's details.
+	 * 
+	 * @param out				destination. Takes Appendable input
+	 * @param label				label of the line. Takes string input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	protected void writeLabel(Appendable out, String label) throws IOException {
+		ReportUtilities.appendPadded(out, label, LABEL_WIDTH);
+		out.append(' ');
+	}
+	
+	/**
+	 * Method is responsible for writing the current bookings
+	 * this Car object has.
 	 * 
 	 * ALGORITHM - Print current bookings
 	 * BEGIN
 	 * 		CHECKS if car has any current bookings
  * 			IF there is a current booking
- * 				RETURNS current booking details
+ * 				WRITES current booking details
  * 			IF there is not a current booking
  * 				SKIP over slot in memory
 	 * 		IF there are not current bookings
-	 * 			RETURNS no current bookings
+	 * 			WRITES nothing
 	 * ENDS
 	 * 
-	 * @return		Returns a formatted string of this
-	 * 				car's associated current bookings.
+	 * @param out				destination. Takes Appendable input
+	 * @throws IOException		If an input or output exception has occurred
 	 */
-	protected String printCurrentBook() {
-		StringBuilder sb = new StringBuilder();
-		
-		if (hasBookings(currentBookings)) {
-			sb.append("\nCURRENT BOOKINGS");
-			for (int i = 0; i < currentBookings.length; i++) {
-				if (currentBookings[i] != null) {
-					sb.append("\n" + currentBookings[i].getDetails());
-				}
+	protected void writeCurrentBookings(Appendable out) throws IOException {
+		if (currentBookingCount > 0) {
+			out.append("\nCURRENT BOOKINGS");
+			for (Booking booking : bookingsByDate()) {
+				out.append('\n');
+				booking.writeDetails(out);
 			}
 		}
-		
-		return sb.toString();
 	}
 	
 	/**
-	 * Method is responsible for returning a formatted
-	 * string of past bookings this Car object has.
+	 * Method is responsible for writing the past bookings
+	 * this Car object has.
 	 * 
-	 * @return		Returns a formatted string of this
-	 * 				Car object's associated past bookings.
+	 * @param out				destination. Takes Appendable input
+	 * @throws IOException		If an input or output exception has occurred
 	 */
-	protected String printPastBook() {
-		StringBuilder sb = new StringBuilder();
-		
-		if (hasBookings(pastBookings)) {
-			sb.append("\nPAST BOOKINGS");
-			for (int i = 0; i < pastBookings.length; i++) {
-				if (pastBookings[i] != null) {
-					sb.append("\n" + pastBookings[i].getDetails());
-				}
+	protected void writePastBookings(Appendable out) throws IOException {
+		if (!pastBookings.isEmpty()) {
+			out.append("\nPAST BOOKINGS");
+			for (int i = 0; i < pastBookings.size(); i++) {
+				out.append('\n');
+				pastBookings.get(i, this).writeDetails(out);
 			}
 		}
-		
-		return sb.toString();
 	}
 
 	// Required getters
@@ -404,6 +618,27 @@ public class Car {
 		return tripFee;
 	}
 	
+	public String getMake() {
+		return make;
+	}
+	
+	public String getModel() {
+		return model;
+	}
+	
+	public int getPassengerCapacity() {
+		return passengerCapacity;
+	}
+	
+	public synchronized Booking[] getCurrentBookings() {
+		rollOverOnDayChange();
+		return bookingsByDate();
+	}
+	
+	public BookingHistory getPastBookings() {
+		return pastBookings;
+	}
+	
 	// Required setters
 	protected void setRegNo(String regNo) throws InvalidId {
 		if (!MiRidesUtilities.isRegNoValid(regNo).contains("Error:")) {
@@ -452,27 +687,89 @@ public class Car {
 	 * @return					Returns a string if booking was  successfully 
 	 * 							completed, or returns an error message 
 	 */
-	protected String completeBooking(int bookingIndex, double kilometers) {
+	protected synchronized String completeBooking(int bookingIndex, double kilometers) {
 		Booking booking = currentBookings[bookingIndex];
 		// Remove booking from current bookings array.
 		currentBookings[bookingIndex] = null;
-		bookingSpotAvailable = bookingIndex;
+		currentBookingCount--;
+		if (fleet != null) {
+			fleet.bookingRemoved(this, booking);
+		}
 
 		// Call complete booking on Booking object
 		double fee = kilometers * (tripFee * 0.3);
 		booking.completeBooking(kilometers, fee, tripFee);
 		
 		// Add booking to past bookings
-		for (int i = 0; i < pastBookings.length; i++) {
-			if (pastBookings[i] == null) {
-				pastBookings[i] = booking;
-				break;
-			}
-		}
+		pastBookings.add(booking);
 		String result = String.format("Thank you for riding with MiRide.\nWe hope you enjoyed your trip.\n$"
 				+ "%.2f has been deducted from your account.", fee);
 		return result;
 	}
+	
+	/**
+	 * Method is responsible for moving a current booking whose day
+	 * has passed into past bookings as a trip of no kilometers.
+	 * 
+	 * @param slot		calendar slot of the booking. Takes numeric input
+	 */
+	private void expireBooking(int slot) {
+		Booking booking = currentBookings[slot];
+		currentBookings[slot] = null;
+		currentBookingCount--;
+		if (fleet != null) {
+			fleet.bookingRemoved(this, booking);
+		}
+		booking.completeBooking(0, 0, booking.getBookingFee());
+		pastBookings.add(booking);
+	}
+	
+	/**
+	 * Method is responsible for giving this car a calendar of its
+	 * own before its first booking is placed.
+	 */
+	private void allocateCalendar() {
+		if (currentBookings == NO_BOOKINGS) {
+			currentBookings = new Booking[BOOKING_WINDOW_DAYS];
+		}
+	}
+	
+	/**
+	 * Method is responsible for finding the calendar slot that
+	 * holds the bookings of a day.
+	 * 
+	 * @param epochDay		day as days since 01/01/1970. Takes numeric input
+	 * @return				Returns the slot of that day.
+	 */
+	private static int calendarSlot(int epochDay) {
+		return Math.floorMod(epochDay, BOOKING_WINDOW_DAYS);
+	}
+
+	/**
+	 * Method is responsible for listing the current bookings in
+	 * date order. Every slot of the calendar is read, so a booking 
+	 * is never missed, even if the clock has been turned back since
+	 * the calendar was last rolled over.
+	 * 
+	 * @return		Returns the current bookings from the earliest date.
+	 */
+	private Booking[] bookingsByDate() {
+		Booking[] bookings = new Booking[currentBookingCount];
+		int count = 0;
+		for (Booking booking : currentBookings) {
+			if (booking != null) {
+				// Few bookings are held, so each is inserted in place
+				int position = count++;
+				int day = booking.getBookingDate().getEpochDay();
+				while (position > 0 && bookings[position - 1].getBookingDate().getEpochDay() > day) {
+					bookings[position] = bookings[position - 1];
+					position--;
+				}
+				bookings[position] = booking;
+			}
+		}
+		return bookings;
+	}
 
 	/**
 	 * Methods is responsible for getting a specific Booking object by its
@@ -485,18 +782,28 @@ public class Car {
 	 * 							position of the booking in memory, or returns
 	 * 							-1 if booking could not be found.
 	 */
-	protected int getBookingByDate(String firstName, String lastName, DateTime dateOfBooking) {
+	protected synchronized int getBookingByDate(String firstName, String lastName, DateTime dateOfBooking) {
 		System.out.println();
-		for (int i = 0; i < currentBookings.length; i++) {
-			if (currentBookings[i] != null) {
-				Booking booking = currentBookings[i];
-				boolean firstNameMatch = booking.getFirstName().toUpperCase().equals(firstName.toUpperCase());
-				boolean lastNameMatch = booking.getLastName().toUpperCase().equals(lastName.toUpperCase());
-				boolean dateMatch = DateUtilities.datesAreTheSame(dateOfBooking, currentBookings[i].getBookingDate());
-				if (firstNameMatch && lastNameMatch && dateMatch) {
-					return i;
-				}
-			}
+		rollOverOnDayChange();
+		return findBooking(Booking.normalizeName(firstName, lastName), dateOfBooking);
+	}
+	
+	/**
+	 * Method is responsible for locating the current booking of a
+	 * passenger on a specific date.
+	 * 
+	 * @param nameKey			normalized passenger name. Takes string input
+	 * 							built by Booking.normalizeName
+	 * @param dateOfBooking		date required. Takes custom DateTime input
+	 * @return					Returns the position of the booking in memory,
+	 * 							or -1 if booking could not be found.
+	 */
+	private int findBooking(String nameKey, DateTime dateOfBooking) {
+		int slot = calendarSlot(dateOfBooking.getEpochDay());
+		Booking booking = currentBookings[slot];
+		if (booking != null && booking.getNameKey().equals(nameKey)
+				&& DateUtilities.datesAreTheSame(dateOfBooking, booking.getBookingDate())) {
+			return slot;
 		}
 		return -1;
 	}
@@ -516,15 +823,12 @@ public class Car {
 	 * 							position of the booking in memory, or returns
 	 * 							-1 if booking could not be found.
 	 */
-	public int getBookingByName(String firstName, String lastName) {
-		for (int i = 0; i < currentBookings.length; i++) {
-			if (currentBookings[i] != null) {
-				boolean firstNameMatch = currentBookings[i].getFirstName().toUpperCase()
-						.equals(firstName.toUpperCase());
-				boolean lastNameMatch = currentBookings[i].getLastName().toUpperCase().equals(lastName.toUpperCase());
-				if (firstNameMatch && lastNameMatch) {
-					return i;
-				}
+	public synchronized int getBookingByName(String firstName, String lastName) {
+		String nameKey = Booking.normalizeName(firstName, lastName);
+		rollOverOnDayChange();
+		for (Booking booking : bookingsByDate()) {
+			if (booking.getNameKey().equals(nameKey)) {
+				return calendarSlot(booking.getBookingDate().getEpochDay());
 			}
 		}
 		return -1;
@@ -537,13 +841,7 @@ public class Car {
 	 * @return 		Returns a formatted string of underscores.
 	 */
 	protected String getRecordMarker() {
-		final int RECORD_MARKER_WIDTH = 60;
-		StringBuilder sb = new StringBuilder();
-		for (int i = 0; i < RECORD_MARKER_WIDTH; i++) {
-			sb.append("_");
-		}
-		sb.append("\n");
-		return sb.toString();
+		return RECORD_MARKER;
 	}
 
 	/**
@@ -569,14 +867,9 @@ public class Car {
 	 * @param date			date required. Takes custom DateTime input
 	 * @return				Returns true if parameter meets requirements,
 	 * 						otherwise false.
-	 * @throws InvalidDate	If an invalid date exception has occurred
 	 */
-	protected boolean dateIsValid(DateTime date) throws InvalidDate {
-		if (!DateUtilities.dateIsNotInPast(date) || !DateUtilities.dateIsNotMoreThan7Days(date)) {
-			throw new InvalidDate();
-		} else {
-			return true;
-		}
+	protected boolean dateIsValid(DateTime date) {
+		return DateUtilities.dateIsNotInPast(date) && DateUtilities.dateIsNotMoreThan7Days(date);
 	}
 	
 	/**
@@ -587,18 +880,8 @@ public class Car {
 	 * 				otherwise false.
 	 */
 	protected boolean bookingAvailable() {
-		for (int i = 0; i < currentBookings.length; i++) {
-			if (currentBookings[i] == null) {
-				if(i == currentBookings.length - 1) {
-					available = false;
-				} else {
-					available = true;
-				}
-				bookingSpotAvailable = i;
-				return true;
-			}
-		}
-		return false;
+		available = currentBookingCount < MAXIMUM_BOOKINGS;
+		return available;
 	}
 
 	/**
@@ -610,16 +893,8 @@ public class Car {
 	 * 					parameter specified, otherwise false. 
 	 */
 	protected boolean notCurrentlyBookedOnDate(DateTime date) {
-		boolean foundDate = true;
-		for (int i = 0; i < currentBookings.length; i++) {
-			if (currentBookings[i] != null) {
-				int days = DateTime.diffDays(date, currentBookings[i].getBookingDate());
-				if (days == 0) {
-					return false;
-				}
-			}
-		}
-		return foundDate;
+		Booking booking = currentBookings[calendarSlot(date.getEpochDay())];
+		return booking == null || !DateUtilities.datesAreTheSame(date, booking.getBookingDate());
 	}
 	
 	/**
@@ -636,16 +911,33 @@ public class Car {
 	 * @throws InputMismatchException	If an input mismatch exception has occurred
 	 */
 	protected boolean checkInputMatch(String regNo, String make, String model, String driverName) throws InputMismatchException {
-		boolean checkReg1 = regNo.substring(0, 3).matches("[a-zA-Z]+");
-		boolean checkReg2 = regNo.substring(3, 6).matches("[0-9]+");
-		boolean checkMake = make.matches("[a-zA-Z]+");
-		boolean checkModel = model.matches("[a-zA-Z0-9._-]+ ?[a-zA-Z0-9._-]+");
-		boolean checkDriver = driverName.matches("[a-zA-Z._-]+ ?[a-zA-Z._-]+ ?[a-zA-Z._-]+");
-		
-		if (checkReg1 && checkReg2 && checkMake && checkModel && checkDriver) {
+		if (inputMatches(regNo, make, model, driverName)) {
 			return true;
 		} else {
 			throw new InputMismatchException();
 		}
 	}
+	
+	/**
+	 * Method is responsible for checking this Car object's details
+	 * match requirements without throwing an exception. Registration
+	 * numbers and makes are checked one character at a time, and the
+	 * patterns for models and driver names are only compiled once.
+	 * 
+	 * @param regNo				registration number. Takes string input
+	 * @param make				car make. Takes string input
+	 * @param model				car model. Takes string input
+	 * @param driverName		driver's name. Takes string input
+	 * @return					Returns true if parameters match requirements,
+	 * 							otherwise false.
+	 */
+	public static boolean inputMatches(String regNo, String make, String model, String driverName) {
+		boolean checkReg = regNo.length() >= 6 && MiRidesUtilities.areLetters(regNo, 0, 3)
+							&& MiRidesUtilities.areDigits(regNo, 3, 6);
+		boolean checkMake = make.length() > 0 && MiRidesUtilities.areLetters(make, 0, make.length());
+		boolean checkModel = MODEL_PATTERN.matcher(model).matches();
+		boolean checkDriver = DRIVER_PATTERN.matcher(driverName).matches();
+		
+		return checkReg && checkMake && checkModel && checkDriver;
+	}
 }
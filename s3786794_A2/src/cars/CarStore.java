@@ -0,0 +1,375 @@
+package cars;
+
+import java.util.Arrays;
+
+import utilities.TextDictionary;
+
+/**
+ * CarStore is the class responsible for holding the details of every
+ * car of a fleet without a Car object for each car. Each detail is kept
+ * in its own array of primitives, indexed by fleet slot: registration
+ * numbers are packed into numbers, types and capacities into bytes, and
+ * makes, models and driver names are stored as numbers in dictionaries
+ * of their text. The refreshments of silver service cars are kept one
+ * after another in a single array of catalog numbers. Cars are found by
+ * registration number through a table of slots, so no map entry is kept
+ * for each car either.
+ * The store does not lock itself. Its fleet locks it, except for the
+ * registration numbers a search reads, which are copied before a row
+ * is moved so the search never sees them change.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+class CarStore {
+	public static final int NOT_FOUND = -1;
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int NO_REFRESHMENTS = -1;
+	private static final int REG_NO_LENGTH = 6;
+	private static final int LETTERS = 52;
+	private static final int NUMBERS = 1000;
+	private static final String STANDARD_CAR = "SD";
+	private static final String SILVER_SERVICE_CAR = "SS";
+
+	private int[] regNoCodes = new int[INITIAL_CAPACITY];
+	private boolean[] silverService = new boolean[INITIAL_CAPACITY];
+	private byte[] passengerCapacities = new byte[INITIAL_CAPACITY];
+	private double[] tripFees = new double[INITIAL_CAPACITY];
+	private int[] makeCodes = new int[INITIAL_CAPACITY];
+	private int[] modelCodes = new int[INITIAL_CAPACITY];
+	private int[] driverCodes = new int[INITIAL_CAPACITY];
+	// Where each car's refreshments start in the pool, which holds their count then their numbers
+	private int[] refreshmentStarts = new int[INITIAL_CAPACITY];
+	private int[] refreshmentPool = new int[INITIAL_CAPACITY];
+	private int poolLength = 0;
+	private int size = 0;
+	// Slots plus one by hash of their registration number, 0 where empty
+	private int[] table = new int[INITIAL_CAPACITY * 2];
+
+	// Makes and models repeat across cars, while driver names mostly do not
+	private final TextDictionary vehicleNames = new TextDictionary();
+	private final TextDictionary driverNames = new TextDictionary();
+
+	/**
+	 * Method is responsible for storing the details of a car in the
+	 * next free slot. The registration number must not be stored yet.
+	 *
+	 * @param car		car stored. Takes custom Car object
+	 * @return			Returns the slot the car was stored in.
+	 */
+	int add(Car car) {
+		if (size == regNoCodes.length) {
+			grow();
+		}
+		int slot = size;
+		regNoCodes[slot] = encodeRegNo(car.getRegNo());
+		silverService[slot] = car instanceof SilverServiceCar;
+		passengerCapacities[slot] = (byte) car.getPassengerCapacity();
+		tripFees[slot] = car.getTripFee();
+		makeCodes[slot] = vehicleNames.encode(car.getMake());
+		modelCodes[slot] = vehicleNames.encode(car.getModel());
+		driverCodes[slot] = driverNames.encode(car.getDriverName());
+		refreshmentStarts[slot] = NO_REFRESHMENTS;
+		if (car instanceof SilverServiceCar) {
+			refreshmentStarts[slot] = addRefreshments(((SilverServiceCar) car).getRefreshmentCodes());
+		}
+		size++;
+
+		int mask = table.length - 1;
+		int position = hash(regNoCodes[slot]) & mask;
+		while (table[position] != 0) {
+			position = (position + 1) & mask;
+		}
+		table[position] = slot + 1;
+		// The table is kept at most half full so cars are found in few steps
+		if (size * 2 > table.length) {
+			growTable();
+		}
+		return slot;
+	}
+
+	/**
+	 * Method is responsible for removing the car in a slot. The car
+	 * in the last slot is moved into the freed slot, so no other car
+	 * moves.
+	 *
+	 * @param slot		fleet slot. Takes numeric input between 0 and
+	 * 					size() - 1
+	 * @return			Returns the slot the moved car was in, or the
+	 * 					removed slot if it was the last.
+	 */
+	int remove(int slot) {
+		removeFromTable(slot);
+		int last = --size;
+		if (last != slot) {
+			// Searches may still be reading the registration numbers
+			regNoCodes = Arrays.copyOf(regNoCodes, regNoCodes.length);
+			regNoCodes[slot] = regNoCodes[last];
+			silverService[slot] = silverService[last];
+			passengerCapacities[slot] = passengerCapacities[last];
+			tripFees[slot] = tripFees[last];
+			makeCodes[slot] = makeCodes[last];
+			modelCodes[slot] = modelCodes[last];
+			driverCodes[slot] = driverCodes[last];
+			refreshmentStarts[slot] = refreshmentStarts[last];
+			table[findPosition(regNoCodes[slot])] = slot + 1;
+		}
+		return last;
+	}
+
+	/**
+	 * Method is responsible for locating the slot of a car by its
+	 * registration number.
+	 *
+	 * @param regNo		registration number. Takes string input
+	 * @return			Returns the slot of the car, or NOT_FOUND if
+	 * 					no car has that registration number.
+	 */
+	int find(String regNo) {
+		int regNoCode = encodeRegNo(regNo);
+		if (regNoCode == NOT_FOUND) {
+			return NOT_FOUND;
+		}
+		int position = findPosition(regNoCode);
+		return position == NOT_FOUND ? NOT_FOUND : table[position] - 1;
+	}
+
+	/**
+	 * Method is responsible for building a Car object from the
+	 * details stored in a slot. The car has no bookings and does
+	 * not belong to the fleet.
+	 *
+	 * @param slot		fleet slot. Takes numeric input
+	 * @return			Returns a new Car or SilverServiceCar object.
+	 */
+	Car newCar(int slot) {
+		if (silverService[slot]) {
+			return new SilverServiceCar(this, slot);
+		}
+		return new Car(this, slot);
+	}
+
+	/**
+	 * Method is responsible for packing a registration number of
+	 * three letters and three digits into a number. Numbers sort in
+	 * the same order as the registration numbers they were packed from.
+	 *
+	 * @param regNo		registration number. Takes string input
+	 * @return			Returns the packed registration number, or
+	 * 					NOT_FOUND if it is not a valid registration number.
+	 */
+	static int encodeRegNo(String regNo) {
+		if (regNo == null || regNo.length() != REG_NO_LENGTH) {
+			return NOT_FOUND;
+		}
+		int regNoCode = 0;
+		for (int i = 0; i < 3; i++) {
+			int letter = letterCode(regNo.charAt(i));
+			if (letter == NOT_FOUND) {
+				return NOT_FOUND;
+			}
+			regNoCode = regNoCode * LETTERS + letter;
+		}
+		int number = 0;
+		for (int i = 3; i < REG_NO_LENGTH; i++) {
+			char c = regNo.charAt(i);
+			if (c < '0' || c > '9') {
+				return NOT_FOUND;
+			}
+			number = number * 10 + (c - '0');
+		}
+		return regNoCode * NUMBERS + number;
+	}
+
+	/**
+	 * Method is responsible for unpacking a registration number.
+	 *
+	 * @param regNoCode		packed registration number. Takes numeric input
+	 * @return				Returns the registration number.
+	 */
+	static String decodeRegNo(int regNoCode) {
+		char[] regNo = new char[REG_NO_LENGTH];
+		int number = regNoCode % NUMBERS;
+		int letters = regNoCode / NUMBERS;
+		for (int i = REG_NO_LENGTH - 1; i >= 3; i--) {
+			regNo[i] = (char) ('0' + number % 10);
+			number /= 10;
+		}
+		for (int i = 2; i >= 0; i--) {
+			int letter = letters % LETTERS;
+			regNo[i] = (char) (letter < 26 ? 'A' + letter : 'a' + letter - 26);
+			letters /= LETTERS;
+		}
+		return new String(regNo);
+	}
+
+	/**
+	 * Method is responsible for numbering a letter so that upper
+	 * case letters come before lower case, as they do in text.
+	 *
+	 * @param c		letter. Takes char input
+	 * @return		Returns the number of the letter, or NOT_FOUND if
+	 * 				it is not a letter from A to Z.
+	 */
+	private static int letterCode(char c) {
+		if (c >= 'A' && c <= 'Z') {
+			return c - 'A';
+		}
+		if (c >= 'a' && c <= 'z') {
+			return 26 + c - 'a';
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Method is responsible for adding the refreshments of a car
+	 * to the end of the pool.
+	 *
+	 * @param codes		catalog numbers. Takes an array of numeric input
+	 * @return			Returns where the refreshments start in the pool.
+	 */
+	private int addRefreshments(int[] codes) {
+		if (poolLength + codes.length + 1 > refreshmentPool.length) {
+			refreshmentPool = Arrays.copyOf(refreshmentPool,
+							Math.max(refreshmentPool.length + (refreshmentPool.length >> 1),
+									poolLength + codes.length + 1));
+		}
+		int start = poolLength;
+		refreshmentPool[poolLength++] = codes.length;
+		System.arraycopy(codes, 0, refreshmentPool, poolLength, codes.length);
+		poolLength += codes.length;
+		return start;
+	}
+
+	/**
+	 * Method is responsible for finding where a registration number
+	 * is in the table of slots.
+	 *
+	 * @param regNoCode		packed registration number. Takes numeric input
+	 * @return				Returns the table position, or NOT_FOUND if no
+	 * 						car has that registration number.
+	 */
+	private int findPosition(int regNoCode) {
+		int mask = table.length - 1;
+		int position = hash(regNoCode) & mask;
+		while (table[position] != 0) {
+			if (regNoCodes[table[position] - 1] == regNoCode) {
+				return position;
+			}
+			position = (position + 1) & mask;
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * Method is responsible for taking a slot out of the table,
+	 * moving later entries back so that none is cut off from where
+	 * its search starts.
+	 *
+	 * @param slot		fleet slot. Takes numeric input
+	 */
+	private void removeFromTable(int slot) {
+		int mask = table.length - 1;
+		int gap = findPosition(regNoCodes[slot]);
+		int position = (gap + 1) & mask;
+		while (table[position] != 0) {
+			int home = hash(regNoCodes[table[position] - 1]) & mask;
+			// Entries that start their search at or before the gap may fill it
+			if (((position - home) & mask) >= ((position - gap) & mask)) {
+				table[gap] = table[position];
+				gap = position;
+			}
+			position = (position + 1) & mask;
+		}
+		table[gap] = 0;
+	}
+
+	/**
+	 * Method is responsible for making room for more cars in
+	 * every column.
+	 */
+	private void grow() {
+		int capacity = size + (size >> 1);
+		regNoCodes = Arrays.copyOf(regNoCodes, capacity);
+		silverService = Arrays.copyOf(silverService, capacity);
+		passengerCapacities = Arrays.copyOf(passengerCapacities, capacity);
+		tripFees = Arrays.copyOf(tripFees, capacity);
+		makeCodes = Arrays.copyOf(makeCodes, capacity);
+		modelCodes = Arrays.copyOf(modelCodes, capacity);
+		driverCodes = Arrays.copyOf(driverCodes, capacity);
+		refreshmentStarts = Arrays.copyOf(refreshmentStarts, capacity);
+	}
+
+	/**
+	 * Method is responsible for doubling the table of slots and
+	 * placing every car in it again.
+	 */
+	private void growTable() {
+		table = new int[table.length * 2];
+		int mask = table.length - 1;
+		for (int slot = 0; slot < size; slot++) {
+			int position = hash(regNoCodes[slot]) & mask;
+			while (table[position] != 0) {
+				position = (position + 1) & mask;
+			}
+			table[position] = slot + 1;
+		}
+	}
+
+	/**
+	 * Method is responsible for mixing a packed registration number,
+	 * so that cars with nearby numbers are spread across the table.
+	 *
+	 * @param regNoCode		packed registration number. Takes numeric input
+	 * @return				Returns the hash of the number.
+	 */
+	private static int hash(int regNoCode) {
+		int hash = regNoCode * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	// Required getters
+	int size() {
+		return size;
+	}
+
+	int[] getRegNoCodes() {
+		return regNoCodes;
+	}
+
+	String getRegNo(int slot) {
+		return decodeRegNo(regNoCodes[slot]);
+	}
+
+	String getCarType(int slot) {
+		return silverService[slot] ? SILVER_SERVICE_CAR : STANDARD_CAR;
+	}
+
+	String getMake(int slot) {
+		return vehicleNames.decode(makeCodes[slot]);
+	}
+
+	String getModel(int slot) {
+		return vehicleNames.decode(modelCodes[slot]);
+	}
+
+	String getDriverName(int slot) {
+		return driverNames.decode(driverCodes[slot]);
+	}
+
+	int getPassengerCapacity(int slot) {
+		return passengerCapacities[slot];
+	}
+
+	double getTripFee(int slot) {
+		return tripFees[slot];
+	}
+
+	int[] getRefreshmentCodes(int slot) {
+		int start = refreshmentStarts[slot];
+		if (start == NO_REFRESHMENTS) {
+			return new int[0];
+		}
+		return Arrays.copyOfRange(refreshmentPool, start + 1, start + 1 + refreshmentPool[start]);
+	}
+}
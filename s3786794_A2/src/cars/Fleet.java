@@ -0,0 +1,635 @@
+package cars;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+
+import utilities.DateTime;
+
+/**
+ * Fleet is the class responsible for storing every car within the
+ * system. The details of every car are kept as columns in a car store,
+ * with cars located by registration number in constant time no matter
+ * how many cars are stored. Car objects are only kept for cars that are
+ * booked or have been asked for, so a large fleet of idle cars takes
+ * little more space than their details. The fleet also keeps an
+ * availability index and a booking index up to date as its cars are
+ * booked and bookings completed. The registration numbers of each type
+ * are kept sorted once they are listed, so they can be listed in order
+ * a page at a time without being sorted again. Large fleets are searched
+ * for free cars on several cores at once, with the fleet only locked
+ * while the free slots are worked out, and free cars are returned by
+ * registration number so no Car object is built for them. The slots of
+ * the silver service cars offering each refreshment are also kept, so
+ * cars offering a refreshment can be found without asking every car.
+ * Every lookup and change locks the fleet for a short time.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class Fleet {
+	// Most fleet slots searched for free cars by a single thread
+	private static final int SEARCH_THRESHOLD = 8192;
+	// Most cars built at once while the fleet is walked in slot order
+	private static final int PAGE_SIZE = 256;
+
+	private CarStore store = new CarStore();
+	// Car objects by fleet slot, null for cars only stored as columns
+	private Car[] cars = new Car[16];
+	// Fleet slots held by cars of each type
+	private HashMap<String, BitSet> slotsByType = new HashMap<String, BitSet>();
+	// Packed registration numbers of each type in order, dropped when a car of the type is added or removed
+	private HashMap<String, int[]> sortedByType = new HashMap<String, int[]>();
+	// Fleet slots of silver service cars offering each refreshment, by catalog number
+	private ArrayList<BitSet> slotsByRefreshment = new ArrayList<BitSet>();
+	private AvailabilityIndex availability = new AvailabilityIndex();
+	private BookingIndex bookings = new BookingIndex();
+
+	/**
+	 * Method is responsible for adding a car to the fleet if no
+	 * other car shares its registration number. The car's details are
+	 * stored as columns, and the Car object itself is only kept if it
+	 * already has bookings. Otherwise the fleet builds a new Car object
+	 * for the car when it is next asked for.
+	 *
+	 * @param car		car object. Takes custom Car object
+	 * @return			Returns true if car was added, or false if
+	 * 					a car with that registration number already
+	 * 					exists within the fleet.
+	 */
+	public synchronized boolean add(Car car) {
+		if (store.find(car.getRegNo()) != CarStore.NOT_FOUND) {
+			return false;
+		}
+		int slot = store.add(car);
+		if (slot == cars.length) {
+			cars = Arrays.copyOf(cars, slot + (slot >> 1));
+		}
+		BitSet typeSlots = slotsByType.get(car.getCarType());
+		if (typeSlots == null) {
+			typeSlots = new BitSet();
+			slotsByType.put(car.getCarType(), typeSlots);
+		}
+		typeSlots.set(slot);
+		sortedByType.remove(car.getCarType());
+		markRefreshments(store.getRefreshmentCodes(slot), slot, true);
+
+		if (car.currentBookingCount > 0 || !car.pastBookings.isEmpty()) {
+			keep(car, slot);
+			// Index bookings the car already had before joining the fleet
+			for (Booking booking : car.currentBookings) {
+				if (booking != null) {
+					bookingAdded(car, booking);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Method is responsible for removing a car from the fleet. The
+	 * last car in the fleet is moved into the freed slot so that
+	 * removal does not shift every other car.
+	 *
+	 * @param regNo		registration number. Takes string input
+	 * @return			Returns the removed car, or null if no car
+	 * 					has that registration number.
+	 */
+	public synchronized Car remove(String regNo) {
+		int slot = store.find(regNo);
+		if (slot == CarStore.NOT_FOUND) {
+			return null;
+		}
+		Car car = carAt(slot);
+		slotsByType.get(car.getCarType()).clear(slot);
+		sortedByType.remove(car.getCarType());
+		markRefreshments(store.getRefreshmentCodes(slot), slot, false);
+		availability.clearSlot(slot);
+		for (Booking booking : car.currentBookings) {
+			if (booking != null) {
+				bookings.remove(booking);
+			}
+		}
+
+		int last = store.size() - 1;
+		if (last != slot) {
+			String lastType = store.getCarType(last);
+			int[] lastRefreshments = store.getRefreshmentCodes(last);
+			availability.moveSlot(last, slot);
+			BitSet lastTypeSlots = slotsByType.get(lastType);
+			lastTypeSlots.clear(last);
+			lastTypeSlots.set(slot);
+			markRefreshments(lastRefreshments, last, false);
+			markRefreshments(lastRefreshments, slot, true);
+			cars[slot] = cars[last];
+			if (cars[slot] != null) {
+				cars[slot].fleetSlot = slot;
+			}
+		}
+		cars[last] = null;
+		store.remove(slot);
+		car.fleetSlot = -1;
+		car.fleet = null;
+		return car;
+	}
+
+	/**
+	 * Method is responsible for locating a Car object by its
+	 * registration number. The fleet keeps the car from then on, so
+	 * it can be booked and every later lookup returns the same object.
+	 *
+	 * @param regNo		registration number. Takes string input
+	 * @return			Returns the car with that registration number,
+	 * 					or null if it could not be found.
+	 */
+	public synchronized Car get(String regNo) {
+		int slot = store.find(regNo);
+		return slot == CarStore.NOT_FOUND ? null : carAt(slot);
+	}
+
+	/**
+	 * Method is responsible for returning the Car object stored in
+	 * a specific slot of the fleet, which the fleet keeps from then on.
+	 *
+	 * @param slot		fleet slot. Takes numeric input between 0 and
+	 * 					size() - 1
+	 * @return			Returns the car stored in that slot.
+	 */
+	public synchronized Car get(int slot) {
+		if (slot < 0 || slot >= store.size()) {
+			throw new ArrayIndexOutOfBoundsException(slot);
+		}
+		return carAt(slot);
+	}
+
+	/**
+	 * Method is responsible for locating a car by its registration
+	 * number only to read its details. A car the fleet does not keep is
+	 * returned as a new Car object without bookings that is not kept,
+	 * so reading idle cars does not grow the fleet. The car must not be
+	 * booked.
+	 *
+	 * @param regNo		registration number. Takes string input
+	 * @return			Returns the car with that registration number,
+	 * 					or null if it could not be found.
+	 */
+	public synchronized Car peek(String regNo) {
+		int slot = store.find(regNo);
+		return slot == CarStore.NOT_FOUND ? null : copyAt(slot);
+	}
+
+	/**
+	 * Method is responsible for checking if a car with a specific
+	 * registration number exists within the fleet.
+	 *
+	 * @param regNo		registration number. Takes string input
+	 * @return			Returns true if car exists, otherwise false.
+	 */
+	public synchronized boolean contains(String regNo) {
+		return store.find(regNo) != CarStore.NOT_FOUND;
+	}
+
+	/**
+	 * Method is responsible for walking every car of the fleet in
+	 * slot order. Cars are built a page at a time, and cars the fleet
+	 * does not keep are read as in peek, so walking a large fleet does
+	 * not grow it. Cars added or removed during the walk may be missed.
+	 *
+	 * @return		Returns the cars of the fleet in slot order.
+	 */
+	public Iterable<Car> cars() {
+		return new Iterable<Car>() {
+			@Override
+			public Iterator<Car> iterator() {
+				return new Iterator<Car>() {
+					private Car[] page = new Car[0];
+					private int index = 0;
+					private int nextSlot = 0;
+
+					@Override
+					public boolean hasNext() {
+						if (index == page.length) {
+							page = carsFrom(nextSlot, PAGE_SIZE);
+							nextSlot += page.length;
+							index = 0;
+						}
+						return index < page.length;
+					}
+
+					@Override
+					public Car next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						return page[index++];
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Method is responsible for returning the Car objects the fleet
+	 * keeps, which are every car holding or having held a booking.
+	 *
+	 * @return		Returns the kept cars in slot order.
+	 */
+	public synchronized Car[] carsInUse() {
+		ArrayList<Car> carsInUse = new ArrayList<Car>();
+		for (int slot = 0; slot < store.size(); slot++) {
+			if (cars[slot] != null) {
+				carsInUse.add(cars[slot]);
+			}
+		}
+		return carsInUse.toArray(new Car[carsInUse.size()]);
+	}
+
+	/**
+	 * Method is responsible for returning a page of the cars of a
+	 * type in order of registration number. Pages are found from the
+	 * last car of the previous page, so each page costs the same no
+	 * matter how far through the fleet it is. Cars are read as in peek.
+	 *
+	 * @param carType		car type. Takes string input
+	 * @param descending	if cars are listed from the highest registration
+	 * 						number down. Takes boolean input
+	 * @param afterRegNo	registration number of the last car of the previous
+	 * 						page. Takes string input, or null for the first page
+	 * @param pageSize		most cars to return. Takes numeric input
+	 * @return				Returns the cars of the page, which is empty once
+	 * 						every car has been listed.
+	 */
+	public synchronized Car[] sortedByRegNo(String carType, boolean descending, String afterRegNo, int pageSize) {
+		int[] sortedCodes = sortedRegNos(carType);
+		// Position of the first car after the previous page, counted from the end when descending
+		int position = 0;
+		if (afterRegNo != null) {
+			int low = 0;
+			int high = sortedCodes.length;
+			// Finds the first registration number above the previous page's last
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (CarStore.decodeRegNo(sortedCodes[middle]).compareTo(afterRegNo) <= 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			position = low;
+			if (descending) {
+				// Skips the previous page's last car, if it still exists, then every car above it
+				boolean found = low > 0 && CarStore.decodeRegNo(sortedCodes[low - 1]).equals(afterRegNo);
+				position = sortedCodes.length - low + (found ? 1 : 0);
+			}
+		}
+
+		int count = Math.max(0, Math.min(pageSize, sortedCodes.length - position));
+		Car[] page = new Car[count];
+		for (int i = 0; i < count; i++) {
+			int index = descending ? sortedCodes.length - 1 - position - i : position + i;
+			page[i] = copyAt(store.find(CarStore.decodeRegNo(sortedCodes[index])));
+		}
+		return page;
+	}
+
+	/**
+	 * Method is responsible for checking if the fleet holds any
+	 * car of a type.
+	 *
+	 * @param carType		car type. Takes string input
+	 * @return				Returns true if a car of that type exists,
+	 * 						otherwise false.
+	 */
+	public synchronized boolean hasType(String carType) {
+		BitSet typeSlots = slotsByType.get(carType);
+		return typeSlots != null && !typeSlots.isEmpty();
+	}
+
+	/**
+	 * Method is responsible for returning every car of a type that
+	 * is free on a specific date, in slot order. Fleets larger than
+	 * the search threshold are filtered and searched on several cores
+	 * at once.
+	 *
+	 * @param carType		car type. Takes string input, or null for any type
+	 * @param date			date required. Takes custom DateTime input
+	 * @return				Returns the registration numbers of the free cars,
+	 * 						which is empty if every car of that type is booked.
+	 */
+	public String[] availableOn(String carType, DateTime date) {
+		return availableOn(carType, date, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Method is responsible for returning every car of a type that
+	 * is free on a specific date, in slot order, filtering and searching
+	 * fleets larger than the search threshold on the threads of a given pool.
+	 *
+	 * @param carType		car type. Takes string input, or null for any type
+	 * @param date			date required. Takes custom DateTime input
+	 * @param pool			threads searching the fleet. Takes ForkJoinPool input
+	 * @return				Returns the registration numbers of the free cars,
+	 * 						which is empty if every car of that type is booked.
+	 */
+	public String[] availableOn(String carType, DateTime date, ForkJoinPool pool) {
+		int[] regNoCodes;
+		int slotCount;
+		long[] typeWords = null;
+		long[] bookedWords;
+		// Only the type's slots and the day's booked slots are copied while the
+		// fleet is locked, so cars can be added and booked while free cars are found.
+		// The store copies its registration numbers before moving one, so they are
+		// read as they were.
+		synchronized (this) {
+			if (carType != null) {
+				BitSet typeSlots = slotsByType.get(carType);
+				if (typeSlots == null) {
+					return new String[0];
+				}
+				typeWords = typeSlots.toLongArray();
+			}
+			bookedWords = availability.bookedWordsOn(date);
+			regNoCodes = store.getRegNoCodes();
+			slotCount = store.size();
+		}
+
+		AvailabilitySearch search = new AvailabilitySearch(regNoCodes, slotCount, typeWords, bookedWords,
+															SEARCH_THRESHOLD);
+		ArrayList<String> availableCars;
+		if (slotCount <= SEARCH_THRESHOLD) {
+			availableCars = search.searchRange();
+		} else {
+			availableCars = pool.invoke(search);
+		}
+		return availableCars.toArray(new String[availableCars.size()]);
+	}
+
+	/**
+	 * Method is responsible for returning every car of a type that
+	 * is free on every day from one date to another, in slot order.
+	 * The days booked are combined in one pass, rather than asking
+	 * each car about each day.
+	 *
+	 * @param carType		car type. Takes string input
+	 * @param start			first date required. Takes custom DateTime input
+	 * @param end			last date required. Takes custom DateTime input
+	 * @return				Returns the registration numbers of the cars free on
+	 * 						every day, which is empty if none are or the end is
+	 * 						before the start.
+	 */
+	public synchronized String[] availableBetween(String carType, DateTime start, DateTime end) {
+		BitSet typeSlots = slotsByType.get(carType);
+		if (typeSlots == null || end.getEpochDay() < start.getEpochDay()) {
+			return new String[0];
+		}
+		BitSet freeSlots = (BitSet) typeSlots.clone();
+		freeSlots.andNot(availability.bookedBetween(start.getEpochDay(), end.getEpochDay()));
+		return regNosOf(freeSlots);
+	}
+
+	/**
+	 * Method is responsible for counting the cars of a type that
+	 * are free on each day from one date to another.
+	 *
+	 * @param carType		car type. Takes string input
+	 * @param start			first date required. Takes custom DateTime input
+	 * @param end			last date required. Takes custom DateTime input
+	 * @return				Returns the number of free cars on each day,
+	 * 						starting with the first date, which is empty if
+	 * 						the end is before the start.
+	 */
+	public synchronized int[] freeCountsBetween(String carType, DateTime start, DateTime end) {
+		if (end.getEpochDay() < start.getEpochDay()) {
+			return new int[0];
+		}
+		BitSet typeSlots = slotsByType.get(carType);
+		if (typeSlots == null) {
+			return new int[end.getEpochDay() - start.getEpochDay() + 1];
+		}
+		int[] freeCounts = availability.countBookedBetween(typeSlots, start.getEpochDay(), end.getEpochDay());
+		int typeCount = typeSlots.cardinality();
+		for (int i = 0; i < freeCounts.length; i++) {
+			freeCounts[i] = typeCount - freeCounts[i];
+		}
+		return freeCounts;
+	}
+
+	/**
+	 * Method is responsible for returning every silver service car
+	 * offering a refreshment that is free on a specific date, in
+	 * slot order. Refreshments are matched regardless of case.
+	 *
+	 * @param refreshment	refreshment name. Takes string input
+	 * @param date			date required. Takes custom DateTime input
+	 * @return				Returns the registration numbers of the free cars
+	 * 						offering the refreshment, which is empty if there
+	 * 						are none.
+	 */
+	public synchronized String[] availableOffering(String refreshment, DateTime date) {
+		// Cars offering any spelling of the refreshment are found
+		BitSet freeSlots = new BitSet();
+		for (int code : SilverServiceCar.CATALOG.codesOf(refreshment)) {
+			if (code < slotsByRefreshment.size()) {
+				freeSlots.or(slotsByRefreshment.get(code));
+			}
+		}
+		availability.clearBookedOn(freeSlots, date);
+		return regNosOf(freeSlots);
+	}
+
+	/**
+	 * Method is responsible for locating a current booking of any
+	 * car in the fleet by its booking id.
+	 *
+	 * @param id		booking id. Takes string input
+	 * @return			Returns the booking, or null if no current
+	 * 					booking has that id.
+	 */
+	public synchronized Booking findBooking(String id) {
+		return bookings.get(id);
+	}
+
+	/**
+	 * Method is responsible for locating the current booking a
+	 * passenger made for a specific date. Names are matched
+	 * regardless of case.
+	 *
+	 * @param firstName		user's first name. Takes string input
+	 * @param lastName		user's last name. Takes string input
+	 * @param date			date booked. Takes custom DateTime input
+	 * @return				Returns the booking, or null if the passenger
+	 * 						has no booking on that date.
+	 */
+	public synchronized Booking findBooking(String firstName, String lastName, DateTime date) {
+		if (date == null) {
+			return null;
+		}
+		return bookings.getByDay(date.getEpochDay(), Booking.normalizeName(firstName, lastName));
+	}
+
+	/**
+	 * Method is responsible for dropping days that have passed,
+	 * and days with no bookings left, from the availability index.
+	 */
+	public synchronized void pruneAvailability() {
+		availability.prune(DateTime.currentEpochDay());
+	}
+
+	/**
+	 * Method is responsible for recording a new booking of a car
+	 * within the availability and booking indexes.
+	 *
+	 * @param car			car booked. Takes custom Car object
+	 * @param booking		new booking. Takes custom Booking object
+	 */
+	synchronized void bookingAdded(Car car, Booking booking) {
+		if (booking.getBookingDate() != null) {
+			availability.markBooked(booking.getBookingDate(), car.fleetSlot);
+		}
+		bookings.add(booking);
+	}
+
+	/**
+	 * Method is responsible for removing a completed booking of
+	 * a car from the availability and booking indexes.
+	 *
+	 * @param car			car booked. Takes custom Car object
+	 * @param booking		completed booking. Takes custom Booking object
+	 */
+	synchronized void bookingRemoved(Car car, Booking booking) {
+		if (booking.getBookingDate() != null) {
+			availability.markFree(booking.getBookingDate(), car.fleetSlot);
+		}
+		bookings.remove(booking);
+	}
+
+	/**
+	 * Method is responsible for returning the Car object of a slot,
+	 * building and keeping it if the car was only stored as columns.
+	 *
+	 * @param slot		fleet slot. Takes numeric input
+	 * @return			Returns the kept car of the slot.
+	 */
+	private Car carAt(int slot) {
+		if (cars[slot] == null) {
+			keep(store.newCar(slot), slot);
+		}
+		return cars[slot];
+	}
+
+	/**
+	 * Method is responsible for returning the kept Car object of a
+	 * slot, or a new Car object that is not kept if there is none.
+	 *
+	 * @param slot		fleet slot. Takes numeric input
+	 * @return			Returns the car of the slot.
+	 */
+	private Car copyAt(int slot) {
+		return cars[slot] != null ? cars[slot] : store.newCar(slot);
+	}
+
+	/**
+	 * Method is responsible for keeping the Car object of a slot,
+	 * so that its bookings are recorded by the fleet.
+	 *
+	 * @param car		car kept. Takes custom Car object
+	 * @param slot		fleet slot. Takes numeric input
+	 */
+	private void keep(Car car, int slot) {
+		car.fleetSlot = slot;
+		car.fleet = this;
+		cars[slot] = car;
+	}
+
+	/**
+	 * Method is responsible for reading the cars of a run of slots,
+	 * as in peek.
+	 *
+	 * @param fromSlot		first slot read. Takes numeric input
+	 * @param count			most cars read. Takes numeric input
+	 * @return				Returns the cars read, which is empty once
+	 * 						every slot has been read.
+	 */
+	private synchronized Car[] carsFrom(int fromSlot, int count) {
+		Car[] page = new Car[Math.max(0, Math.min(count, store.size() - fromSlot))];
+		for (int i = 0; i < page.length; i++) {
+			page[i] = copyAt(fromSlot + i);
+		}
+		return page;
+	}
+
+	/**
+	 * Method is responsible for returning the packed registration
+	 * numbers of a type in order, sorting them again only if a car of
+	 * the type was added or removed since they were last sorted.
+	 *
+	 * @param carType		car type. Takes string input
+	 * @return				Returns the packed registration numbers in order.
+	 */
+	private int[] sortedRegNos(String carType) {
+		int[] sortedCodes = sortedByType.get(carType);
+		if (sortedCodes == null) {
+			BitSet typeSlots = slotsByType.get(carType);
+			if (typeSlots == null) {
+				return new int[0];
+			}
+			int[] regNoCodes = store.getRegNoCodes();
+			sortedCodes = new int[typeSlots.cardinality()];
+			int index = 0;
+			for (int slot = typeSlots.nextSetBit(0); slot >= 0; slot = typeSlots.nextSetBit(slot + 1)) {
+				sortedCodes[index++] = regNoCodes[slot];
+			}
+			// Packed registration numbers sort in the same order as the text
+			Arrays.sort(sortedCodes);
+			sortedByType.put(carType, sortedCodes);
+		}
+		return sortedCodes;
+	}
+
+	/**
+	 * Method is responsible for reading the registration numbers
+	 * of a set of slots.
+	 *
+	 * @param slots		fleet slots. Takes BitSet input
+	 * @return			Returns the registration numbers in slot order.
+	 */
+	private String[] regNosOf(BitSet slots) {
+		String[] regNos = new String[slots.cardinality()];
+		int index = 0;
+		for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+			regNos[index++] = store.getRegNo(slot);
+		}
+		return regNos;
+	}
+
+	/**
+	 * Method is responsible for marking or clearing a fleet slot
+	 * for every refreshment a silver service car offers.
+	 *
+	 * @param codes			catalog numbers of the refreshments offered by
+	 * 						the car in the slot. Takes an array of numeric input
+	 * @param slot			fleet slot. Takes numeric input
+	 * @param offered		if the slot is being marked. Takes boolean input
+	 */
+	private void markRefreshments(int[] codes, int slot, boolean offered) {
+		for (int code : codes) {
+			while (slotsByRefreshment.size() <= code) {
+				slotsByRefreshment.add(new BitSet());
+			}
+			slotsByRefreshment.get(code).set(slot, offered);
+		}
+	}
+
+	// Required getters
+	public synchronized int size() {
+		return store.size();
+	}
+
+	public synchronized boolean isEmpty() {
+		return store.size() == 0;
+	}
+}
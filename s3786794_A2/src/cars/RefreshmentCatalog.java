@@ -0,0 +1,97 @@
+package cars;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * RefreshmentCatalog is the class responsible for giving every
+ * refreshment offered by any silver service car a number, so that
+ * each car only stores the numbers of its refreshments and the name
+ * of each refreshment is stored once. Every spelling of a name is
+ * given its own number, so each car shows its refreshments as they
+ * were entered. Names are looked up regardless of case and
+ * surrounding spaces, which finds the numbers of every spelling.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class RefreshmentCatalog {
+	private static final int[] NO_CODES = new int[0];
+
+	private HashMap<String, Integer> codesByName = new HashMap<String, Integer>();
+	private HashMap<String, int[]> codesByKey = new HashMap<String, int[]>();
+	private ArrayList<String> names = new ArrayList<String>();
+
+	/**
+	 * Method is responsible for returning the number of a
+	 * refreshment, adding it to the catalog if it is new.
+	 *
+	 * @param name		refreshment name. Takes string input
+	 * @return			Returns the number of the refreshment as spelled.
+	 */
+	public synchronized int encode(String name) {
+		String spelling = name.trim();
+		Integer code = codesByName.get(spelling);
+		if (code == null) {
+			code = names.size();
+			codesByName.put(spelling, code);
+			names.add(spelling);
+			
+			// The list is replaced rather than changed, as it may have been handed out
+			String key = normalize(spelling);
+			int[] codes = codesByKey.get(key);
+			if (codes == null) {
+				codes = NO_CODES;
+			}
+			codes = Arrays.copyOf(codes, codes.length + 1);
+			codes[codes.length - 1] = code;
+			codesByKey.put(key, codes);
+		}
+		return code;
+	}
+
+	/**
+	 * Method is responsible for returning the numbers of every
+	 * spelling of a refreshment without adding it to the catalog.
+	 * Names are matched regardless of case.
+	 *
+	 * @param name		refreshment name. Takes string input
+	 * @return			Returns the numbers of the refreshment, which is 
+	 * 					empty if no car has offered it. The array must 
+	 * 					not be changed.
+	 */
+	public synchronized int[] codesOf(String name) {
+		int[] codes = codesByKey.get(normalize(name));
+		return codes == null ? NO_CODES : codes;
+	}
+	/**
+	 * Method is responsible for returning the name of a
+	 * refreshment from its number.
+	 *
+	 * @param code		refreshment number. Takes numeric input
+	 * 					between 0 and size() - 1
+	 * @return			Returns the name of the refreshment.
+	 */
+	public synchronized String decode(int code) {
+		return names.get(code);
+	}
+
+	/**
+	 * Method is responsible for building the key a refreshment
+	 * name is matched by.
+	 *
+	 * @param name		refreshment name. Takes string input
+	 * @return			Returns the name without surrounding spaces
+	 * 					in lower case.
+	 */
+	static String normalize(String name) {
+		return name.trim().toLowerCase(Locale.ROOT);
+	}
+
+	// Required getters
+	public synchronized int size() {
+		return names.size();
+	}
+}
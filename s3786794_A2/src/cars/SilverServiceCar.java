@@ -1,15 +1,20 @@
 package cars;
 
+import java.io.IOException;
+import java.util.HashSet;
 import java.util.InputMismatchException;
 
 import exceptions.*;
 import utilities.DateTime;
 import utilities.DateUtilities;
+import utilities.ReportUtilities;
 
 /**
  * SilverServiceCar is the child class responsible for 
  * creating a new SilverServiceCar object and ensuring
  * the required parameters are correct.
+ * Refreshments are stored as their numbers in the shared refreshment
+ * catalog, so their names are only stored once across the fleet.
  * 
  * @author Peter Bui : s3786794
  * @version 1.0
@@ -17,7 +22,13 @@ import utilities.DateUtilities;
 public class SilverServiceCar extends Car {
 
 	private double bookingFee;
-	private String[] refreshments;
+	private int[] refreshmentCodes;
+	
+	private static final int REFRESHMENT_LABEL_WIDTH = 12;
+	private static final int MINIMUM_REFRESHMENTS = 3;
+	private static final int MAXIMUM_REFRESHMENTS = 5;
+	// Refreshments offered by every silver service car
+	static final RefreshmentCatalog CATALOG = new RefreshmentCatalog();
 	
 	/**
 	 * Class constructor.
@@ -42,13 +53,27 @@ public class SilverServiceCar extends Car {
 		tripFee = bookingFee;
 		this.carType = "SS";
 		
-		if (!refreshDupCheck(refreshments) && refreshLimitCheck(refreshments)) {
-			this.refreshments = refreshments;
+		if (refreshments != null && refreshLimitCheck(refreshments) && !refreshDupCheck(refreshments)) {
+			this.refreshmentCodes = encodeRefreshments(refreshments);
 		} else {
 			throw new InvalidRefreshments();
 		}
 	}
 	
+	/**
+	 * Class constructor for a silver service car whose details are
+	 * stored in the columns of a fleet.
+	 * 
+	 * @param store		columns holding the car. Takes custom CarStore object
+	 * @param slot		slot of the car. Takes numeric input
+	 */
+	SilverServiceCar(CarStore store, int slot) {
+		super(store, slot);
+		this.bookingFee = tripFee;
+		this.carType = "SS";
+		this.refreshmentCodes = store.getRefreshmentCodes(slot);
+	}
+	
 	/**
 	 * Method is responsible for splitting a refreshment
 	 * string into separate strings.
@@ -64,57 +89,88 @@ public class SilverServiceCar extends Car {
 	}
 	
 	@Override
-	public boolean book(String firstName, String lastName, DateTime required, int numPassengers) throws InvalidBooking, InvalidDate {
-		boolean booked = false;
-		
+	public synchronized BookingResult tryBook(String firstName, String lastName, DateTime required, int numPassengers) {
 		// Booking fee is equal to or greater than 3.00
 		boolean validBookingFee = validBookingFee(bookingFee);
 		// Check if there is any refreshments added
-		boolean addRefreshments = checkRefreshments(refreshments);
-		// Date is within range, not in past and within 3 days
-		boolean dateValid = DateUtilities.dateIsNotMoreThan3Days(required);
+		boolean addRefreshments = checkRefreshments(refreshmentCodes);
 		
-		if (validBookingFee && addRefreshments && dateValid) {
-			super.book(firstName, lastName, required, numPassengers);
-			booked = true;
-		} else {
-			booked = false;
+		if (!validBookingFee || !addRefreshments) {
+			return BookingResult.SERVICE_UNAVAILABLE;
 		}
-		
-		return booked;
+		// Date is within range, not in past and within 3 days
+		if (!DateUtilities.dateIsNotMoreThan3Days(required)) {
+			return BookingResult.OUTSIDE_SERVICE_DAYS;
+		}
+		return super.tryBook(firstName, lastName, required, numPassengers);
 	}
 	
 	@Override
-	public String getDetails() {
-		StringBuilder sb = new StringBuilder();
-		
-		sb.append(super.printDetails());
-		sb.append(printRefresh());
-		sb.append(super.printCurrentBook());
-		sb.append(super.printPastBook());
-		
-		return sb.toString();
+	public synchronized void writeDetails(Appendable out) throws IOException {
+		rollOverOnDayChange();
+		super.writeSummary(out);
+		writeRefreshments(out);
+		super.writeCurrentBookings(out);
+		super.writePastBookings(out);
 	}
 	
 	@Override
-	public String firstBuilder() {
-		StringBuilder sb = new StringBuilder();
-		
-		sb.append(super.firstBuilder());
-		sb.append(":");
+	protected void appendFirst(StringBuilder sb) {
+		super.appendFirst(sb);
+		sb.append(':');
 		
-		if (refreshments != null) {
-			for (int i = 0; i < refreshments.length; i++) {
-				if (refreshments[i] != null && !(i == refreshments.length - 1)) {
-					sb.append("Item " + (i + 1) + " " + refreshments[i] + ":");
+		if (refreshmentCodes != null) {
+			for (int i = 0; i < refreshmentCodes.length; i++) {
+				if (i > 0) {
+					sb.append(':');
 				}
-				if (i == refreshments.length - 1) {
-					sb.append("Item " + (i + 1) + " " + refreshments[i]);
+				sb.append("Item ").append(i + 1).append(' ').append(CATALOG.decode(refreshmentCodes[i]));
+			}
+		}
+	}
+	
+	/**
+	 * Method is responsible for returning the refreshments this
+	 * car offers.
+	 * 
+	 * @return		Returns a list of refreshments.
+	 */
+	public String[] getRefreshments() {
+		String[] items = new String[refreshmentCodes.length];
+		for (int i = 0; i < refreshmentCodes.length; i++) {
+			items[i] = CATALOG.decode(refreshmentCodes[i]);
+		}
+		return items;
+	}
+	
+	/**
+	 * Method is responsible for checking if this car offers a
+	 * refreshment. Names are matched regardless of case.
+	 * 
+	 * @param name		refreshment name. Takes string input
+	 * @return			Returns true if this car offers it, otherwise false.
+	 */
+	public boolean offersRefreshment(String name) {
+		int[] codes = CATALOG.codesOf(name);
+		for (int i = 0; i < refreshmentCodes.length; i++) {
+			for (int j = 0; j < codes.length; j++) {
+				if (refreshmentCodes[i] == codes[j]) {
+					return true;
 				}
 			}
 		}
-		
-		return sb.toString();
+		return false;
+	}
+	
+	/**
+	 * Method is responsible for returning the catalog numbers of
+	 * the refreshments this car offers.
+	 * 
+	 * @return		Returns the refreshment numbers. The array is
+	 * 				not copied and must not be changed.
+	 */
+	int[] getRefreshmentCodes() {
+		return refreshmentCodes;
 	}
 	
 	/**
@@ -138,11 +194,11 @@ public class SilverServiceCar extends Car {
 	 * parameter is not null, so that a SilverServiceCar
 	 * object could be fully created.
 	 * 
-	 * @param refreshments		list of refreshments. Takes string array
-	 * @return					Returns true if string array is not empty, 
+	 * @param refreshments		refreshment numbers. Takes numeric array
+	 * @return					Returns true if array is not empty, 
 	 * 							otherwise false.
 	 */
-	private boolean checkRefreshments(String[] refreshments) {
+	private boolean checkRefreshments(int[] refreshments) {
 		if (refreshments != null) {
 			return true;
 		} else {
@@ -153,18 +209,18 @@ public class SilverServiceCar extends Car {
 	/**
 	 * Method is responsible for checking if there is any
 	 * duplicated refreshments within the refreshments
-	 * parameters.
+	 * parameters. Names are matched regardless of case and
+	 * surrounding spaces, the same way the catalog matches them.
+	 * The catalog itself is not used, so refreshments of a car that
+	 * is refused are never added to it.
 	 * 
 	 * ALGORITHM - Checking for duplicates
 	 * BEGIN
-	 * 		CHECKS for first refreshment
-	 * 			CHECKS for next refreshment
-	 * 				COMPARES both refreshments
-	 * 				IF both are the same
-	 * 					RETURN true
-	 * 				CONTINUES for further refreshments
-	 *			SWITCH for next refreshment
-	 *				REPEAT for next refreshments
+	 * 		CHECKS each refreshment
+	 * 			MATCHES its name
+	 * 			IF the name has been seen
+	 * 				RETURN true
+	 * 			MARKS the name as seen
 	 *		IF there are no same refreshments
 	 *			RETURNS false
 	 * ENDS
@@ -174,12 +230,10 @@ public class SilverServiceCar extends Car {
 	 * 							otherwise false.
 	 */
 	private boolean refreshDupCheck(String[] refreshments) {
+		HashSet<String> seen = new HashSet<String>();
 		for (int i = 0; i < refreshments.length; i++) {
-			for (int j = i + 1; j < refreshments.length; j++) {
-				if (refreshments[i] != null && refreshments[j] != null)
-				if (refreshments[i] == refreshments[j]) {
-					return true;
-				}
+			if (refreshments[i] != null && !seen.add(RefreshmentCatalog.normalize(refreshments[i]))) {
+				return true;
 			}
 		}
 		return false;
@@ -187,14 +241,16 @@ public class SilverServiceCar extends Car {
 		
 	/**
 	 * Method is responsible if refreshments list has less
-	 * than 3 items or more than 5 items.
+	 * than 3 items or more than 5 items. Empty slots are
+	 * not counted.
 	 * 
 	 * @param refreshments		list of refreshments. Takes string array
 	 * @return					Returns true if refreshment list fits 
 	 * 							requirements, otherwise false.
 	 */
 	private boolean refreshLimitCheck(String[] refreshments) {
-		if (refreshments.length < 3 || refreshments.length > 5) {
+		int count = countRefreshments(refreshments);
+		if (count < MINIMUM_REFRESHMENTS || count > MAXIMUM_REFRESHMENTS) {
 			return false;
 		} else {
 			return true;
@@ -202,24 +258,57 @@ public class SilverServiceCar extends Car {
 	}
 	
 	/**
-	 * Method is responsible for returning a formatted string
-	 * of the list of refreshment this child Car object has.
+	 * Method is responsible for converting a list of refreshments
+	 * into their catalog numbers, leaving out empty slots. Only
+	 * called once the list has been validated, since new names are
+	 * added to the catalog for good.
 	 * 
-	 * @return		Returns a string of a formatted list of 
-	 * 				refreshments.
+	 * @param refreshments		list of refreshments. Takes string array
+	 * @return					Returns the refreshment numbers in order.
 	 */
-	private String printRefresh() {
-		StringBuilder sb = new StringBuilder();
-		
-		if (checkRefreshments(refreshments) == true) {
-			sb.append("\nRefreshments Available\n");
-			for (int i = 0; i < refreshments.length; i++) {
-				if (refreshments[i] != null) {
-					sb.append(String.format("%-12s %s\n", "Item " + (i + 1) + ":", refreshments[i]));
-				}
+	private static int[] encodeRefreshments(String[] refreshments) {
+		int[] codes = new int[countRefreshments(refreshments)];
+		int count = 0;
+		for (int i = 0; i < refreshments.length; i++) {
+			if (refreshments[i] != null) {
+				codes[count++] = CATALOG.encode(refreshments[i]);
+			}
+		}
+		return codes;
+	}
+	
+	/**
+	 * Method is responsible for counting the refreshments of a
+	 * list, leaving out empty slots.
+	 * 
+	 * @param refreshments		list of refreshments. Takes string array
+	 * @return					Returns the number of refreshments.
+	 */
+	private static int countRefreshments(String[] refreshments) {
+		int count = 0;
+		for (int i = 0; i < refreshments.length; i++) {
+			if (refreshments[i] != null) {
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Method is responsible for writing the list of 
+	 * refreshment this child Car object has.
+	 * 
+	 * @param out				destination. Takes Appendable input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	private void writeRefreshments(Appendable out) throws IOException {
+		if (checkRefreshments(refreshmentCodes) == true) {
+			out.append("\nRefreshments Available\n");
+			for (int i = 0; i < refreshmentCodes.length; i++) {
+				ReportUtilities.appendPadded(out, "Item " + (i + 1) + ":", REFRESHMENT_LABEL_WIDTH);
+				out.append(' ').append(CATALOG.decode(refreshmentCodes[i])).append('\n');
 			}
 		}
-		return sb.toString();
 	}
 	
 }
@@ -0,0 +1,361 @@
+package persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.InputMismatchException;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import cars.*;
+import exceptions.*;
+import utilities.DateTime;
+
+/**
+ * BinarySnapshot is the class responsible for saving and loading
+ * cars and their bookings in a fixed binary layout, so that loading
+ * a large fleet only copies values out of a memory mapped file instead
+ * of splitting and parsing text.
+ *
+ * A file starts with a header holding a marker, the layout version,
+ * the number of cars, the length of the body and a CRC32 checksum of
+ * the body. Every value in the body is written at its natural width,
+ * and text is written as its length followed by its UTF-8 bytes.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class BinarySnapshot {
+	private static final int MAGIC = 0x4D495244; // "MIRD"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 8;
+	private static final byte STANDARD_CAR = 0;
+	private static final byte SILVER_SERVICE_CAR = 1;
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private byte[] textBytes = new byte[64];
+
+	/**
+	 * Method is responsible for saving Car objects into the main and
+	 * backup files. The cars are written once into the main file, which
+	 * is then copied to the backup file, and both files are renamed over
+	 * the old files once they are complete.
+	 *
+	 * @param cars				cars in memory. Takes an Iterable of Car objects
+	 * @param mainFileName		main file name. Takes string input
+	 * @param backUpFileName	backup file name. Takes string input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	public void saveCars(Iterable<Car> cars, String mainFileName, String backUpFileName) throws IOException {
+		Path mainTemp = Paths.get(mainFileName + TEMP_SUFFIX);
+		Path backUpTemp = Paths.get(backUpFileName + TEMP_SUFFIX);
+
+		FileChannel wrMain = FileChannel.open(mainTemp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+								StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		FileChannel wrBackUp = FileChannel.open(backUpTemp, StandardOpenOption.CREATE,
+								StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			writeSnapshot(cars, wrMain);
+			long copied = 0;
+			while (copied < wrMain.size()) {
+				copied += wrMain.transferTo(copied, wrMain.size() - copied, wrBackUp);
+			}
+			wrMain.force(true);
+			wrBackUp.force(true);
+		} finally {
+			wrMain.close();
+			wrBackUp.close();
+		}
+
+		Files.move(mainTemp, Paths.get(mainFileName),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		Files.move(backUpTemp, Paths.get(backUpFileName),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Method is responsible for loading every car and booking of a
+	 * snapshot file into the fleet. The file is mapped into memory and
+	 * its checksum is checked before any car is created.
+	 *
+	 * @param fileName					file name. Takes string input
+	 * @param fleet						fleet to load into. Takes custom Fleet object
+	 * @return							Returns the number of Car objects read.
+	 * @throws CorruptedFiles			If a corrupted files exception has occurred
+	 * @throws InputMismatchException	If an input mismatch exception has occurred
+	 * @throws InvalidId				If an invalid id exception has occurred
+	 * @throws InvalidRefreshments		If an invalid refreshments exception has occurred
+	 * @throws IOException				If an input or output exception has occurred
+	 */
+	public int readData(String fileName, Fleet fleet) throws CorruptedFiles, InputMismatchException,
+											InvalidId, InvalidRefreshments, IOException {
+		FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+		try {
+			if (channel.size() < HEADER_SIZE) {
+				throw new CorruptedFiles();
+			}
+			MappedByteBuffer snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			if (snapshot.getInt() != MAGIC || snapshot.getInt() != VERSION) {
+				throw new CorruptedFiles();
+			}
+			int carCount = snapshot.getInt();
+			long bodyLength = snapshot.getLong();
+			long checksum = snapshot.getLong();
+			if (bodyLength != channel.size() - HEADER_SIZE) {
+				throw new CorruptedFiles();
+			}
+
+			CRC32 crc = new CRC32();
+			crc.update(snapshot.duplicate());
+			if (crc.getValue() != checksum) {
+				throw new CorruptedFiles();
+			}
+
+			for (int i = 0; i < carCount; i++) {
+				fleet.add(readCar(snapshot));
+			}
+			return carCount;
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Method is responsible for writing the header and body of a
+	 * snapshot. The body is written first after space left for the
+	 * header, which is filled in once the checksum is known.
+	 *
+	 * @param cars				cars in memory. Takes an Iterable of Car objects
+	 * @param channel			file to write. Takes FileChannel input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	private void writeSnapshot(Iterable<Car> cars, FileChannel channel) throws IOException {
+		channel.position(HEADER_SIZE);
+		CRC32 crc = new CRC32();
+		OutputStream body = Channels.newOutputStream(channel);
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(body, crc), 64 * 1024));
+
+		int carCount = 0;
+		for (Car car : cars) {
+			if (car != null) {
+				synchronized (car) {
+					writeCar(car, out);
+				}
+				carCount++;
+			}
+		}
+		out.flush();
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(carCount);
+		header.putLong(channel.size() - HEADER_SIZE);
+		header.putLong(crc.getValue());
+		header.flip();
+		while (header.hasRemaining()) {
+			channel.write(header, header.position());
+		}
+	}
+
+	/**
+	 * Method is responsible for writing a car, its refreshments and
+	 * all of its bookings.
+	 *
+	 * @param car				car to write. Takes custom Car object
+	 * @param out				snapshot body. Takes DataOutputStream input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	private void writeCar(Car car, DataOutputStream out) throws IOException {
+		boolean silver = car instanceof SilverServiceCar;
+		out.writeByte(silver ? SILVER_SERVICE_CAR : STANDARD_CAR);
+		writeText(car.getRegNo(), out);
+		writeText(car.getMake(), out);
+		writeText(car.getModel(), out);
+		writeText(car.getDriverName(), out);
+		out.writeByte(car.getPassengerCapacity());
+		out.writeDouble(car.getTripFee());
+
+		if (silver) {
+			String[] refreshments = ((SilverServiceCar) car).getRefreshments();
+			out.writeByte(refreshments.length);
+			for (String refreshment : refreshments) {
+				writeText(refreshment, out);
+			}
+		}
+
+		Booking[] currentBookings = car.getCurrentBookings();
+		int currentCount = 0;
+		for (Booking booking : currentBookings) {
+			if (booking != null) {
+				currentCount++;
+			}
+		}
+		out.writeByte(currentCount);
+		for (Booking booking : currentBookings) {
+			if (booking != null) {
+				DateTime date = booking.getBookingDate();
+				writeBooking(booking.getFirstName(), booking.getLastName(),
+							date == null ? BookingHistory.NO_DATE : date.getEpochDay(), booking.getNumPassengers(),
+							booking.getBookingFee(), booking.getKilometersTravelled(), booking.getTripFee(), out);
+			}
+		}
+
+		BookingHistory pastBookings = car.getPastBookings();
+		out.writeInt(pastBookings.size());
+		for (int i = 0; i < pastBookings.size(); i++) {
+			writeBooking(pastBookings.getFirstName(i), pastBookings.getLastName(i), pastBookings.getEpochDay(i),
+						pastBookings.getNumPassengers(i), pastBookings.getBookingFee(i),
+						pastBookings.getKilometers(i), pastBookings.getTripFee(i), out);
+		}
+	}
+
+	/**
+	 * Method is responsible for writing the details of one booking.
+	 *
+	 * @param firstName				user's first name. Takes string input
+	 * @param lastName				user's last name. Takes string input
+	 * @param epochDay				day booked. Takes numeric input
+	 * @param numPassengers			number of passengers. Takes numeric input
+	 * @param bookingFee			booking fee. Takes numeric input
+	 * @param kilometersTravelled	kilometers traveled. Takes numeric input
+	 * @param tripFee				trip fee. Takes numeric input
+	 * @param out					snapshot body. Takes DataOutputStream input
+	 * @throws IOException			If an input or output exception has occurred
+	 */
+	private void writeBooking(String firstName, String lastName, int epochDay, int numPassengers, double bookingFee,
+							double kilometersTravelled, double tripFee, DataOutputStream out) throws IOException {
+		writeText(firstName, out);
+		writeText(lastName, out);
+		out.writeInt(epochDay);
+		out.writeByte(numPassengers);
+		out.writeDouble(bookingFee);
+		out.writeDouble(kilometersTravelled);
+		out.writeDouble(tripFee);
+	}
+
+	/**
+	 * Method is responsible for writing text as its length followed
+	 * by its UTF-8 bytes. Missing text is written with a length of -1.
+	 *
+	 * @param text				text to write. Takes string input
+	 * @param out				snapshot body. Takes DataOutputStream input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	private void writeText(String text, DataOutputStream out) throws IOException {
+		if (text == null) {
+			out.writeShort(-1);
+			return;
+		}
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Method is responsible for creating a car and its bookings from
+	 * the next part of a snapshot.
+	 *
+	 * @param snapshot					mapped snapshot file. Takes ByteBuffer input
+	 * @return							Returns the Car object read.
+	 * @throws CorruptedFiles			If a current booking clashes with another booking of the car
+	 * @throws InputMismatchException	If an input mismatch exception has occurred
+	 * @throws InvalidId				If an invalid id exception has occurred
+	 * @throws InvalidRefreshments		If an invalid refreshments exception has occurred
+	 */
+	private Car readCar(ByteBuffer snapshot) throws CorruptedFiles, InputMismatchException, InvalidId, 
+												InvalidRefreshments {
+		byte carType = snapshot.get();
+		String regNo = readText(snapshot);
+		String make = readText(snapshot);
+		String model = readText(snapshot);
+		String driverName = readText(snapshot);
+		int passengerCapacity = snapshot.get();
+		double tripFee = snapshot.getDouble();
+
+		Car car;
+		if (carType == SILVER_SERVICE_CAR) {
+			String[] refreshments = new String[snapshot.get()];
+			for (int i = 0; i < refreshments.length; i++) {
+				refreshments[i] = readText(snapshot);
+			}
+			car = new SilverServiceCar(regNo, make, model, driverName, passengerCapacity, tripFee, refreshments);
+		} else {
+			car = new Car(regNo, make, model, driverName, passengerCapacity);
+		}
+
+		int currentCount = snapshot.get();
+		for (int i = 0; i < currentCount; i++) {
+			String firstName = readText(snapshot);
+			String lastName = readText(snapshot);
+			DateTime date = readDate(snapshot);
+			int numPassengers = snapshot.get();
+			double bookingFee = snapshot.getDouble();
+			snapshot.getDouble(); // kilometers are not known until completed
+			snapshot.getDouble(); // trip fee is not known until completed
+			try {
+				car.restoreCurrentBooking(firstName, lastName, date, numPassengers, bookingFee);
+			} catch (InvalidBooking ib) {
+				throw new CorruptedFiles();
+			}
+		}
+
+		int pastCount = snapshot.getInt();
+		for (int i = 0; i < pastCount; i++) {
+			String firstName = readText(snapshot);
+			String lastName = readText(snapshot);
+			DateTime date = readDate(snapshot);
+			int numPassengers = snapshot.get();
+			double bookingFee = snapshot.getDouble();
+			double kilometers = snapshot.getDouble();
+			double pastTripFee = snapshot.getDouble();
+			car.restorePastBooking(firstName, lastName, date, numPassengers, bookingFee, kilometers, pastTripFee);
+		}
+		return car;
+	}
+
+	/**
+	 * Method is responsible for reading a booking date written as
+	 * an epoch day.
+	 *
+	 * @param snapshot		mapped snapshot file. Takes ByteBuffer input
+	 * @return				Returns the date, or null if none was saved.
+	 */
+	private DateTime readDate(ByteBuffer snapshot) {
+		int epochDay = snapshot.getInt();
+		if (epochDay == BookingHistory.NO_DATE) {
+			return null;
+		}
+		return DateTime.fromEpochDay(epochDay);
+	}
+
+	/**
+	 * Method is responsible for reading text written by writeText.
+	 *
+	 * @param snapshot		mapped snapshot file. Takes ByteBuffer input
+	 * @return				Returns the text, or null if none was saved.
+	 */
+	private String readText(ByteBuffer snapshot) {
+		int length = snapshot.getShort();
+		if (length < 0) {
+			return null;
+		}
+		if (length > textBytes.length) {
+			textBytes = new byte[length];
+		}
+		snapshot.get(textBytes, 0, length);
+		return new String(textBytes, 0, length, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,287 @@
+package persistence;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.InputMismatchException;
+
+import cars.Car;
+import cars.Fleet;
+import exceptions.*;
+import utilities.DateTime;
+
+/**
+ * Journal is the class responsible for recording every change made
+ * to the system as it happens, so that a crash only loses what has
+ * happened since the last record rather than the whole session.
+ * Each new car, booking and completed booking is appended as one
+ * line to the end of the journal file. Records are written straight
+ * away, while the file is only forced to disk once a group of records
+ * has built up or enough time has passed. Records written just before
+ * the system goes quiet are forced by calling sync at least once every
+ * GROUP_COMMIT_INTERVAL. After the saved files have been rewritten the
+ * journal is cleared.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class Journal {
+	public static final String NEW_CAR = "CC";
+	public static final String NEW_BOOKING = "BK";
+	public static final String COMPLETED_BOOKING = "CB";
+
+	// Longest time in milliseconds a written record may wait to be forced to disk
+	public static final long GROUP_COMMIT_INTERVAL = 200;
+
+	private static final int GROUP_COMMIT_SIZE = 32;
+	private static final int SNAPSHOT_INTERVAL = 1000;
+
+	private String fileName;
+	private FileChannel channel;
+	private StringBuilder record = new StringBuilder();
+	private int unsyncedRecords = 0;
+	private long lastSync = System.currentTimeMillis();
+	private int recordsSinceSnapshot = 0;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param fileName			journal file name. Takes string input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	public Journal(String fileName) throws IOException {
+		this.fileName = fileName;
+		this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+										StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Method is responsible for recording a new car.
+	 *
+	 * @param car				new car. Takes custom Car object
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	public synchronized void carCreated(Car car) throws IOException {
+		record.setLength(0);
+		record.append(NEW_CAR).append(':').append(car.firstBuilder());
+		append();
+	}
+
+	/**
+	 * Method is responsible for recording a new booking.
+	 *
+	 * @param regNo				registration number. Takes string input
+	 * @param firstName			user's first name. Takes string input
+	 * @param lastName			user's last name. Takes string input
+	 * @param required			date required. Takes custom DateTime input
+	 * @param numPassengers		number of passengers. Takes numeric input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	public synchronized void bookingMade(String regNo, String firstName, String lastName,
+										DateTime required, int numPassengers) throws IOException {
+		record.setLength(0);
+		record.append(NEW_BOOKING).append(':').append(regNo);
+		record.append(':').append(firstName).append(':').append(lastName);
+		record.append(':').append(required.getEightDigitDate());
+		record.append(':').append(numPassengers);
+		append();
+	}
+
+	/**
+	 * Method is responsible for recording a completed booking.
+	 *
+	 * @param regNo				registration number. Takes string input
+	 * @param firstName			user's first name. Takes string input
+	 * @param lastName			user's last name. Takes string input
+	 * @param dateOfBooking		date of booking. Takes custom DateTime input
+	 * @param kilometers		kilometers traveled. Takes numeric input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	public synchronized void bookingCompleted(String regNo, String firstName, String lastName,
+											DateTime dateOfBooking, double kilometers) throws IOException {
+		record.setLength(0);
+		record.append(COMPLETED_BOOKING).append(':').append(regNo);
+		record.append(':').append(firstName).append(':').append(lastName);
+		record.append(':').append(dateOfBooking.getEightDigitDate());
+		record.append(':').append(kilometers);
+		append();
+	}
+
+	/**
+	 * Method is responsible for checking if enough records have
+	 * been written that the saved files should be rewritten.
+	 *
+	 * @return		Returns true if a snapshot is due, otherwise false.
+	 */
+	public synchronized boolean snapshotDue() {
+		return recordsSinceSnapshot >= SNAPSHOT_INTERVAL;
+	}
+
+	/**
+	 * Method is responsible for rewriting the saved files from the
+	 * fleet and then clearing the journal, since every record in it
+	 * is now part of the saved files.
+	 *
+	 * @param persistence		saved files to write. Takes custom
+	 * 							MainPersistence object
+	 * @param fleet				fleet to save. Takes custom Fleet object
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	public synchronized void snapshot(MainPersistence persistence, Fleet fleet) throws IOException {
+		persistence.saveCars(fleet.cars());
+		channel.truncate(0);
+		channel.force(true);
+		unsyncedRecords = 0;
+		recordsSinceSnapshot = 0;
+		lastSync = System.currentTimeMillis();
+	}
+
+	/**
+	 * Method is responsible for forcing every written record to disk.
+	 *
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	public synchronized void sync() throws IOException {
+		if (unsyncedRecords > 0) {
+			channel.force(false);
+			unsyncedRecords = 0;
+		}
+		lastSync = System.currentTimeMillis();
+	}
+
+	/**
+	 * Method is responsible for forcing every written record to disk
+	 * and closing the journal file.
+	 *
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	public synchronized void close() throws IOException {
+		sync();
+		channel.close();
+	}
+
+	/**
+	 * Method is responsible for applying every record of the journal
+	 * to a fleet loaded from the saved files. Records already part of
+	 * the fleet, such as a booking on a date the car is already booked,
+	 * are skipped, so replaying a journal twice is harmless.
+	 *
+	 * @param persistence				used to read car records. Takes custom
+	 * 									MainPersistence object
+	 * @param fleet						fleet to apply records to. Takes custom
+	 * 									Fleet object
+	 * @return							Returns the number of records read.
+	 * @throws CorruptedFiles			If a corrupted files exception has occurred
+	 * @throws InputMismatchException	If an input mismatch exception has occurred
+	 * @throws InvalidId				If an invalid id exception has occurred
+	 * @throws InvalidRefreshments		If an invalid refreshments exception has occurred
+	 * @throws IOException				If an input or output exception has occurred
+	 */
+	public int replay(MainPersistence persistence, Fleet fleet) throws CorruptedFiles, InputMismatchException,
+											InvalidId, InvalidRefreshments, IOException {
+		if (!new File(fileName).exists()) {
+			return 0;
+		}
+		BufferedReader br = Files.newBufferedReader(Paths.get(fileName), StandardCharsets.UTF_8);
+		RecordTokenizer splitRecord = new RecordTokenizer(':');
+		String line = null;
+		int recordsRead = 0;
+
+		try {
+			while ((line = br.readLine()) != null) {
+				int fieldCount = splitRecord.tokenize(line, NEW_CAR.length() + 1);
+				if (line.startsWith(NEW_CAR)) {
+					persistence.checkFile(fieldCount);
+					fleet.add(persistence.provideCars(splitRecord));
+				} else if (line.startsWith(NEW_BOOKING)) {
+					replayBooking(fleet, splitRecord, fieldCount);
+				} else if (line.startsWith(COMPLETED_BOOKING)) {
+					replayCompletion(fleet, splitRecord, fieldCount);
+				} else {
+					throw new CorruptedFiles();
+				}
+				recordsRead++;
+			}
+		} finally {
+			br.close();
+		}
+		return recordsRead;
+	}
+
+	/**
+	 * Method is responsible for applying a booking record to its car.
+	 *
+	 * @param fleet				fleet holding the car. Takes custom Fleet object
+	 * @param splitRecord		booking record. Takes custom RecordTokenizer
+	 * @param fieldCount		number of record details. Takes numeric input
+	 * @throws CorruptedFiles	If a corrupted files exception has occurred
+	 */
+	private void replayBooking(Fleet fleet, RecordTokenizer splitRecord, int fieldCount) throws CorruptedFiles {
+		if (fieldCount < 5) {
+			throw new CorruptedFiles();
+		}
+		Car car = fleet.get(splitRecord.getField(0));
+		DateTime required = DateTime.fromEightDigitDate(splitRecord.getField(3));
+		if (car != null && required != null) {
+			try {
+				car.restoreCurrentBooking(splitRecord.getField(1), splitRecord.getField(2), required,
+										Integer.parseInt(splitRecord.getField(4)), car.getTripFee());
+			} catch (InvalidBooking ib) {
+				throw new CorruptedFiles();
+			}
+		}
+	}
+
+	/**
+	 * Method is responsible for applying a completed booking record
+	 * to its car. The record must name the date of the booking, so
+	 * the same booking is completed again.
+	 *
+	 * @param fleet				fleet holding the car. Takes custom Fleet object
+	 * @param splitRecord		completed booking record. Takes custom RecordTokenizer
+	 * @param fieldCount		number of record details. Takes numeric input
+	 * @throws CorruptedFiles	If a corrupted files exception has occurred
+	 */
+	private void replayCompletion(Fleet fleet, RecordTokenizer splitRecord, int fieldCount) throws CorruptedFiles {
+		if (fieldCount < 5) {
+			throw new CorruptedFiles();
+		}
+		Car car = fleet.get(splitRecord.getField(0));
+		DateTime dateOfBooking = DateTime.fromEightDigitDate(splitRecord.getField(3));
+		if (dateOfBooking == null) {
+			throw new CorruptedFiles();
+		}
+		if (car != null) {
+			car.completeBooking(splitRecord.getField(1), splitRecord.getField(2), dateOfBooking,
+								Double.parseDouble(splitRecord.getField(4)));
+		}
+	}
+
+	/**
+	 * Method is responsible for writing the current record to the end
+	 * of the journal, forcing it to disk once enough records or time
+	 * have built up since the last force.
+	 *
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	private void append() throws IOException {
+		record.append('\n');
+		ByteBuffer bytes = ByteBuffer.wrap(record.toString().getBytes(StandardCharsets.UTF_8));
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		unsyncedRecords++;
+		recordsSinceSnapshot++;
+
+		if (unsyncedRecords >= GROUP_COMMIT_SIZE
+				|| System.currentTimeMillis() - lastSync >= GROUP_COMMIT_INTERVAL) {
+			sync();
+		}
+	}
+}
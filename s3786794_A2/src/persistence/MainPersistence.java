@@ -4,13 +4,24 @@ import cars.*;
 import exceptions.*;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.InputMismatchException;
 
+import utilities.DateTime;
+
 /**
  * MainPersistence is the class responsible for dealing with
  * external data and save files states, saving upon exiting 
@@ -23,45 +34,161 @@ import java.util.InputMismatchException;
  * @version 1.0
  */
 public class MainPersistence {
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+	private static final String TEMP_SUFFIX = ".tmp";
+	
+	private String mainFileName;
+	private String backUpFileName;
+	private SnapshotFormat format;
+	
+	/**
+	 * Class constructor using the default main and backup text files.
+	 */
+	public MainPersistence() {
+		this(SnapshotFormat.TEXT);
+	}
+	
+	/**
+	 * Class constructor using the default main and backup files
+	 * of a format.
+	 * 
+	 * @param format			format of the saved files. Takes custom 
+	 * 							SnapshotFormat input
+	 */
+	public MainPersistence(SnapshotFormat format) {
+		this("MainData" + format.getExtension(), "BackUpData" + format.getExtension(), format);
+	}
+	
+	/**
+	 * Class constructor.
+	 * 
+	 * @param mainFileName		main file name. Takes string input
+	 * @param backUpFileName	backup file name. Takes string input
+	 */
+	public MainPersistence(String mainFileName, String backUpFileName) {
+		this(mainFileName, backUpFileName, SnapshotFormat.TEXT);
+	}
+	
+	/**
+	 * Class constructor.
+	 * 
+	 * @param mainFileName		main file name. Takes string input
+	 * @param backUpFileName	backup file name. Takes string input
+	 * @param format			format of the saved files. Takes custom 
+	 * 							SnapshotFormat input
+	 */
+	public MainPersistence(String mainFileName, String backUpFileName, SnapshotFormat format) {
+		this.mainFileName = mainFileName;
+		this.backUpFileName = backUpFileName;
+		this.format = format;
+	}
+	
 	/**
 	 * Method is responsible for saving Car objects to an external file,
 	 * writing to the file if it exists, or creating a new file if file 
 	 * does not exist. 
 	 * A backup file is also created to ensure that if the main files does
 	 * not exist, the backup file is used instead.
+	 * Each car is written with its current and past bookings.
+	 * Every car is turned into text once, into a shared buffer whose bytes
+	 * are written to both files. Both files are first written under a
+	 * temporary name and then renamed over the old files, so a crash 
+	 * part way through a save never leaves a half written file.
+	 * Binary saved files are written by BinarySnapshot instead.
 	 * 
-	 * @param cars				cars in memory. Takes car array
+	 * @param cars				cars in memory. Takes an Iterable of Car objects
 	 * @throws IOException		If an input or output exception has occurred
 	 */
-	public void saveCars(Car[] cars) throws IOException {
-		PrintWriter wrMain = new PrintWriter(new BufferedWriter(new FileWriter("MainData.txt")));
-		PrintWriter wrBackUp = new PrintWriter(new BufferedWriter(new FileWriter("BackUpData.txt")));
+	public void saveCars(Iterable<Car> cars) throws IOException {
+		if (format == SnapshotFormat.BINARY) {
+			new BinarySnapshot().saveCars(cars, mainFileName, backUpFileName);
+			return;
+		}
+		Path mainTemp = Paths.get(mainFileName + TEMP_SUFFIX);
+		Path backUpTemp = Paths.get(backUpFileName + TEMP_SUFFIX);
+		FileChannel wrMain = FileChannel.open(mainTemp, StandardOpenOption.CREATE, 
+								StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		FileChannel wrBackUp = FileChannel.open(backUpTemp, StandardOpenOption.CREATE, 
+								StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
 		
-		for (Car car: cars) {
-			if (car != null) {
-				String carString = car.toString();
-				if (carString.contains("|")) {
-					String[] carSplit = carString.split("\\|");
-					wrMain.println(carSplit[0]);
-					wrBackUp.println(carSplit[0]);
-				} else {
-					wrMain.print(carString);
-					wrBackUp.print(carString);
+		try {
+			StringBuilder carString = new StringBuilder(WRITE_BUFFER_SIZE);
+			ByteBuffer bytes = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+			CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+											.onMalformedInput(CodingErrorAction.REPLACE);
+			
+			for (Car car: cars) {
+				if (car != null) {
+					car.appendRecord(carString);
+					if (carString.length() >= WRITE_BUFFER_SIZE) {
+						writeBoth(carString, encoder, bytes, wrMain, wrBackUp);
+					}
 				}
 			}
+			writeBoth(carString, encoder, bytes, wrMain, wrBackUp);
+			wrMain.force(true);
+			wrBackUp.force(true);
+		} finally {
+			wrMain.close();
+			wrBackUp.close();
 		}
-		wrMain.close();
-		wrBackUp.close();
+		
+		Files.move(mainTemp, Paths.get(mainFileName), 
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		Files.move(backUpTemp, Paths.get(backUpFileName), 
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+	
+	/**
+	 * Method is responsible for encoding the text built up so far
+	 * and writing the same bytes to both the main and backup files,
+	 * leaving the builder empty for the next cars.
+	 * 
+	 * @param carString			text of saved cars. Takes StringBuilder input
+	 * @param encoder			text encoder. Takes CharsetEncoder input
+	 * @param bytes				reusable byte buffer. Takes ByteBuffer input
+	 * @param wrMain			main file. Takes FileChannel input
+	 * @param wrBackUp			backup file. Takes FileChannel input
+	 * @throws IOException		If an input or output exception has occurred
+	 */
+	private void writeBoth(StringBuilder carString, CharsetEncoder encoder, ByteBuffer bytes,
+							FileChannel wrMain, FileChannel wrBackUp) throws IOException {
+		CharBuffer chars = CharBuffer.wrap(carString);
+		CoderResult result;
+		encoder.reset();
+		
+		do {
+			result = encoder.encode(chars, bytes, true);
+			if (!result.isOverflow()) {
+				encoder.flush(bytes);
+			}
+			bytes.flip();
+			ByteBuffer backUpBytes = bytes.duplicate();
+			while (bytes.hasRemaining()) {
+				wrMain.write(bytes);
+			}
+			while (backUpBytes.hasRemaining()) {
+				wrBackUp.write(backUpBytes);
+			}
+			bytes.clear();
+		} while (result.isOverflow());
+		
+		carString.setLength(0);
 	}
 	
 	/**
 	 * Method is responsible for reading data from an external 
 	 * file into the system to create new Car objects. 
+	 * Each car is added to the fleet as soon as its details and the
+	 * booking lines following it have been read, so any number of cars 
+	 * can be loaded without holding the whole file in memory. Bookings
+	 * are placed back into their car without being validated again.
+	 * Binary saved files are read by BinarySnapshot instead.
 	 * 
 	 * @param fileName					file name. Takes string input
-	 * @return							Returns a list of Car objects from 
-	 * 									an external file while the file still
-	 * 									has lines to be read.
+	 * @param fleet						fleet to load into. Takes custom Fleet object
+	 * @return							Returns the number of Car objects read 
+	 * 									from an external file.
 	 * @throws CorruptedFiles			If a corrupted files exception has occurred
 	 * @throws InputMismatchException	If an input mismatch exception has occurred
 	 * @throws InvalidId				If an invalid id exception has occurred
@@ -69,27 +196,50 @@ public class MainPersistence {
 	 * @throws IOException				If an input or output exception has occurred
 	 * @throws NullFile					If a null file exception has occurred
 	 */
-	public Car[] readData(String fileName) throws CorruptedFiles, InputMismatchException, InvalidId, 
+	public int readData(String fileName, Fleet fleet) throws CorruptedFiles, InputMismatchException, InvalidId, 
 											InvalidRefreshments, IOException, NullFile {
-		BufferedReader br = new BufferedReader(new FileReader(fileName));
+		if (format == SnapshotFormat.BINARY) {
+			return new BinarySnapshot().readData(fileName, fleet);
+		}
+		BufferedReader br = Files.newBufferedReader(Paths.get(fileName), StandardCharsets.UTF_8);
+		RecordTokenizer splitCar = new RecordTokenizer(':');
 		String line = null;
+		Car car = null;
+		int carsRead = 0;
 		
-		Car[] newCarList = new Car[15];
-		int i = 0;
-		
-		while ((line = br.readLine()) != null) {
-			String[] splitCar = line.split(":");
-			
-			checkFile(splitCar);
-			
-			Car newCar = provideCars(splitCar);
-			
-			newCarList[i] = newCar;
-			i++;
+		try {
+			while ((line = br.readLine()) != null) {
+				if (line.startsWith(Car.CURRENT_BOOKING_MARKER) || line.startsWith(Car.PAST_BOOKING_MARKER)) {
+					if (car == null) {
+						throw new CorruptedFiles();
+					}
+					checkBooking(splitCar.tokenize(line, Car.CURRENT_BOOKING_MARKER.length()));
+					provideBooking(car, splitCar, line.startsWith(Car.CURRENT_BOOKING_MARKER));
+				} else {
+					if (car != null) {
+						fleet.add(car);
+					}
+					checkFile(splitCar.tokenize(line));
+					car = provideCars(splitCar);
+					carsRead++;
+				}
+			}
+			if (car != null) {
+				fleet.add(car);
+			}
+		} finally {
+			br.close();
 		}
-		
-		br.close();
-		return newCarList;
+		return carsRead;
+	}
+	
+	// Required getters
+	public String getMainFileName() {
+		return mainFileName;
+	}
+	
+	public String getBackUpFileName() {
+		return backUpFileName;
 	}
 	
 	/**
@@ -97,21 +247,63 @@ public class MainPersistence {
 	 * has the correct amount of items to be read into the system
 	 * to create a fully functioning Car object.
 	 * 
-	 * @param splitCar			list of car details. Takes string array
+	 * @param fieldCount		number of car details. Takes numeric input
 	 * @throws CorruptedFiles	If an corrupted files exception has occurred
 	 */
-	public void checkFile(String[] splitCar) throws CorruptedFiles {
-		if (splitCar.length < 7) {
+	public void checkFile(int fieldCount) throws CorruptedFiles {
+		if (fieldCount < 7) {
 			throw new CorruptedFiles();
 		}
 	}
 	
+	/**
+	 * Method is responsible for ensuring that a booking line of an
+	 * external file has every detail of a Booking object.
+	 * 
+	 * @param fieldCount		number of booking details. Takes numeric input
+	 * @throws CorruptedFiles	If an corrupted files exception has occurred
+	 */
+	public void checkBooking(int fieldCount) throws CorruptedFiles {
+		if (fieldCount < 9) {
+			throw new CorruptedFiles();
+		}
+	}
+	
+	/**
+	 * Method is responsible for placing a booking line of an external
+	 * file back into the car it belongs to.
+	 * 
+	 * @param car				car the booking belongs to. Takes custom Car object
+	 * @param splitBooking		list of booking details. Takes custom RecordTokenizer
+	 * @param current			if the booking is a current booking. Takes boolean input
+	 * @throws CorruptedFiles	If a current booking clashes with another booking of the car
+	 */
+	private void provideBooking(Car car, RecordTokenizer splitBooking, boolean current) throws CorruptedFiles {
+		double bookingFee = Double.parseDouble(splitBooking.getField(1));
+		DateTime dateBooked = DateTime.fromEightDigitDate(splitBooking.getField(2));
+		String firstName = splitBooking.getField(3);
+		String lastName = splitBooking.getField(4);
+		int numPassengers = Integer.parseInt(splitBooking.getField(5));
+		
+		if (current) {
+			try {
+				car.restoreCurrentBooking(firstName, lastName, dateBooked, numPassengers, bookingFee);
+			} catch (InvalidBooking ib) {
+				throw new CorruptedFiles();
+			}
+		} else {
+			double kilometers = Double.parseDouble(splitBooking.getField(6));
+			double tripFee = Double.parseDouble(splitBooking.getField(7));
+			car.restorePastBooking(firstName, lastName, dateBooked, numPassengers, bookingFee, kilometers, tripFee);
+		}
+	}
+	
 	/**
 	 * Method is responsible for splitting a string array of car
 	 * details into their respective components so that a new Car
 	 * object could be created.
 	 * 
-	 * @param splitCar 					list of car details. Takes string array
+	 * @param splitCar 					list of car details. Takes custom RecordTokenizer
 	 * @return							Returns a fully created Car object of 
 	 * 									either the parent Car or the child 
 	 * 									SilverServiceCar if successful.
@@ -119,17 +311,17 @@ public class MainPersistence {
 	 * @throws InvalidId				If an invalid id exception has occurred
 	 * @throws InvalidRefreshments		If an invalid refreshments exception has occurred
 	 */
-	private Car provideCars(String[] splitCar) throws InputMismatchException, InvalidId, InvalidRefreshments {
+	Car provideCars(RecordTokenizer splitCar) throws InputMismatchException, InvalidId, InvalidRefreshments {
 		Car car;
 		
-		String regNo = splitCar[0];
-		String make = splitCar[1];
-		String model = splitCar[2];
-		String driverName = splitCar[3];
-		int passengerNum = Integer.parseInt(splitCar[4]);
-		double tripFee = Double.parseDouble(splitCar[6]);
+		String regNo = splitCar.getField(0);
+		String make = splitCar.getField(1);
+		String model = splitCar.getField(2);
+		String driverName = splitCar.getField(3);
+		int passengerNum = Integer.parseInt(splitCar.getField(4));
+		double tripFee = Double.parseDouble(splitCar.getField(6));
 		
-		if (splitCar.length < 8) {
+		if (splitCar.getFieldCount() < 8) {
 			car = new Car(regNo, make, model, driverName, passengerNum);
 		} else {
 			String[] refreshment = splitRefresh(splitCar);
@@ -141,43 +333,41 @@ public class MainPersistence {
 	/**
 	 * Method is responsible for splitting a refreshment list
 	 * that is read from an external file to be used in the 
-	 * creation of a SilverServiceCar object
+	 * creation of a SilverServiceCar object. Each refreshment is
+	 * written as "Item N name", and the name is everything after
+	 * the number, however many words it has.
 	 * 
 	 * ALGORITHM - Splitting refreshment list
 	 * BEGIN
 	 * 		DEFINE new values
 	 * 		CHECKS if string input is valid
 	 * 		IF string input is valid
-	 * 			STORES value into other memory
-	 * 			CHECKS if value has white spaces
-	 * 			IF has white spaces
-	 * 				SPLITS string accordingly
-	 * 				STORES value into new memory
-	 * 			IF it does not
-	 * 				STORES value into new memory
-	 * 			INCREASE counter
+	 * 			FINDS the space after the item number
+	 * 			IF there is a name after it
+	 * 				STORES name into new memory
 	 * 		RETURNS list of values
 	 * ENDS
 	 * 
-	 * @param splitCar		cat details split. Takes string input
-	 * @return				Returns an array of refreshments.
+	 * @param splitCar		cat details split. Takes custom RecordTokenizer
+	 * @return				Returns an array of refreshments, leaving out
+	 * 						empty items saved as "null" by earlier versions.
 	 */
-	private String[] splitRefresh(String[] splitCar) {
-		String[] refreshment = new String[5];
-		int refreshCount = 0;
+	private String[] splitRefresh(RecordTokenizer splitCar) {
+		ArrayList<String> refreshment = new ArrayList<String>(splitCar.getFieldCount() - 7);
 		
-		for (int i = 7; i < splitCar.length; i++) {
-			if (splitCar[i] != null) {
-				String[] splitRefresh = splitCar[i].split(" ");
-				if (splitRefresh.length == 3) {
-					refreshment[refreshCount] = splitRefresh[2];
-				} else if (splitRefresh.length > 3) {
-					refreshment[refreshCount] = splitRefresh[2] + " " + splitRefresh[3];
+		for (int i = 7; i < splitCar.getFieldCount(); i++) {
+			String item = splitCar.getField(i);
+			if (item != null) {
+				int nameStart = item.indexOf(' ', item.indexOf(' ') + 1) + 1;
+				if (nameStart > 0 && nameStart < item.length()) {
+					String name = item.substring(nameStart);
+					if (!name.equals("null")) {
+						refreshment.add(name);
+					}
 				}
-				refreshCount++;
 			}
 		}
 		
-		return refreshment;
+		return refreshment.toArray(new String[refreshment.size()]);
 	}
 }
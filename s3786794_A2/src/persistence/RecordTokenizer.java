@@ -0,0 +1,93 @@
+package persistence;
+
+import java.util.Arrays;
+
+/**
+ * RecordTokenizer is the class responsible for breaking a line
+ * read from a save file into its separate fields. The same field
+ * array is reused for every line, so reading a file does not create
+ * a new array or compile a pattern for each record.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class RecordTokenizer {
+	private final char separator;
+	private String[] fields = new String[16];
+	private int fieldCount = 0;
+
+	/**
+	 * Class constructor.
+	 *
+	 * @param separator		field separator. Takes char input
+	 */
+	public RecordTokenizer(char separator) {
+		this.separator = separator;
+	}
+
+	/**
+	 * Method is responsible for splitting a line into fields
+	 * at every separator.
+	 *
+	 * @param line		line of a save file. Takes string input
+	 * @return			Returns the number of fields found.
+	 */
+	public int tokenize(String line) {
+		return tokenize(line, 0);
+	}
+
+	/**
+	 * Method is responsible for splitting the part of a line after
+	 * a starting position into fields at every separator.
+	 *
+	 * @param line		line of a save file. Takes string input
+	 * @param start		position of the first field. Takes numeric input
+	 * @return			Returns the number of fields found.
+	 */
+	public int tokenize(String line, int start) {
+		fieldCount = 0;
+		int end;
+
+		while ((end = line.indexOf(separator, start)) != -1) {
+			addField(line.substring(start, end));
+			start = end + 1;
+		}
+		addField(line.substring(start));
+
+		return fieldCount;
+	}
+
+	/**
+	 * Method is responsible for returning one field of the last
+	 * line that was split.
+	 *
+	 * @param index		field position. Takes numeric input between 0
+	 * 					and getFieldCount() - 1
+	 * @return			Returns the field at that position.
+	 */
+	public String getField(int index) {
+		if (index >= fieldCount) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		return fields[index];
+	}
+
+	// Required getters
+	public int getFieldCount() {
+		return fieldCount;
+	}
+
+	/**
+	 * Method is responsible for storing a field, making the
+	 * field array larger if it is full.
+	 *
+	 * @param field		field of a line. Takes string input
+	 */
+	private void addField(String field) {
+		if (fieldCount == fields.length) {
+			fields = Arrays.copyOf(fields, fields.length * 2);
+		}
+		fields[fieldCount] = field;
+		fieldCount++;
+	}
+}
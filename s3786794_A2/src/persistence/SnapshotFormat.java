@@ -0,0 +1,41 @@
+package persistence;
+
+/**
+ * SnapshotFormat is the enum responsible for listing the formats
+ * the saved files of the system can be written in.
+ * TEXT is the colon separated format that can be read by a person,
+ * while BINARY is a fixed layout that is much faster to load.
+ * 
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public enum SnapshotFormat {
+	TEXT(".txt"),
+	BINARY(".bin");
+	
+	private String extension;
+	
+	private SnapshotFormat(String extension) {
+		this.extension = extension;
+	}
+	
+	/**
+	 * Method is responsible for choosing a format from the 
+	 * "miride.snapshot" system property, using TEXT if it has 
+	 * not been set.
+	 * 
+	 * @return		Returns the chosen format.
+	 */
+	public static SnapshotFormat fromSystemProperty() {
+		String format = System.getProperty("miride.snapshot", "text");
+		if (format.equalsIgnoreCase("binary")) {
+			return BINARY;
+		}
+		return TEXT;
+	}
+	
+	// Required getters
+	public String getExtension() {
+		return extension;
+	}
+}
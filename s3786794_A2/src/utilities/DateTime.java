@@ -1,122 +1,244 @@
-package utilities;
-
-/**
- * DateTime is the class responsible for converting user input
- * into usable DateTime data for the system to process and for
- * the user to be able to read it.
- * 
- * @author Peter Bui : s3786794
- * @version 1.0
- */
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.sql.Date;
-
-public class DateTime
-{
-	private long advance;
-	private long time;
-
-	public DateTime()
-	{
-		time = System.currentTimeMillis();
-	}
-
-	public DateTime(int setClockForwardInDays)
-	{
-		advance = ((setClockForwardInDays * 24L + 0) * 60L) * 60000L;
-		time = System.currentTimeMillis() + advance;
-	}
-
-	public DateTime(DateTime startDate, int setClockForwardInDays)
-	{
-		advance = ((setClockForwardInDays * 24L + 0) * 60L) * 60000L;
-		time = startDate.getTime() + advance;
-	}
-
-	public DateTime(int day, int month, int year)
-	{
-		setDate(day, month, year);
-	}
-
-	public long getTime()
-	{
-		return time;
-	}
-
-	public String toString()
-	{
-		long currentTime = getTime();
-		Date gct = new Date(currentTime);
-		return gct.toString();
-	}
-
-	public static String getCurrentTime()
-	{
-		Date date = new Date(System.currentTimeMillis()); // returns current Date/Time
-		return date.toString();
-	}
-
-	public String getFormattedDate()
-	{
-		SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
-		long currentTime = getTime();
-		Date gct = new Date(currentTime);
-
-		return sdf.format(gct);
-	}
-
-	public String getEightDigitDate()
-	{
-		SimpleDateFormat sdf = new SimpleDateFormat("ddMMyyyy");
-		long currentTime = getTime();
-		Date gct = new Date(currentTime);
-
-		return sdf.format(gct);
-	}
-
-	// returns difference in days to help determine if a given date is before or
-	// after another date.
-	public static int diffDays(DateTime endDate, DateTime startDate) throws NullPointerException
-	{
-		final long HOURS_IN_DAY = 24L;
-		final int MINUTES_IN_HOUR = 60;
-		final int SECONDS_IN_MINUTES = 60;
-		final int MILLISECONDS_IN_SECOND = 1000;
-		long convertToDays = HOURS_IN_DAY * MINUTES_IN_HOUR * SECONDS_IN_MINUTES * MILLISECONDS_IN_SECOND;
-		long hirePeriod = endDate.getTime() - startDate.getTime();
-		double difference = (double) hirePeriod / (double) convertToDays;
-		int round = (int) Math.round(difference);
-		return round;
-	}
-
-	private void setDate(int day, int month, int year)
-	{
-		Calendar calendar = Calendar.getInstance();
-		calendar.set(year, month - 1, day, 0, 0);
-
-		java.util.Date date = calendar.getTime();
-
-		time = date.getTime();
-	}
-
-	// Advances date/time by specified days, hours and mins for testing purposes
-	public void setAdvance(int days, int hours, int mins)
-	{
-		advance = ((days * 24L + hours) * 60L) * 60000L;
-	}
-
-	public DateTime removeTime()
-	{
-		String[] tokens = getFormattedDate().split("/");
-		return new DateTime(Integer.parseInt(tokens[0]), Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
-	}
-
-	// fixes a bug in the performance of the diff days function
-	// the diff days function has been left in for backward compatibility
-	public static int actualDiffDays(DateTime endDate, DateTime startDate)
-
-	{
-		return diffDays(endDate.removeTime(), startDate.removeTime());
-	}
-}
+package utilities;
+
+/**
+ * DateTime is the class responsible for converting user input
+ * into usable DateTime data for the system to process and for
+ * the user to be able to read it.
+ * A DateTime never changes once created, so its calendar day and
+ * formatted forms are worked out the first time they are needed 
+ * and then reused, and it can be shared between threads freely.
+ * The current time is read from a clock that can be replaced, so
+ * that time can be simulated. Today's date is worked out once and
+ * reused until the clock leaves that day, rather than on every check.
+ * 
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+public class DateTime
+{
+	private static final long MILLISECONDS_IN_DAY = 24L * 60L * 60L * 1000L;
+	private static final TimeZone ZONE = TimeZone.getDefault();
+	private static final int EPOCH_DAY_NOT_SET = Integer.MIN_VALUE;
+	// java.time formatters can be shared between threads, unlike SimpleDateFormat
+	private static final DateTimeFormatter FORMATTED_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	private static final DateTimeFormatter EIGHT_DIGIT_DATE = DateTimeFormatter.ofPattern("ddMMyyyy");
+
+	private static volatile Clock clock = Clock.systemDefaultZone();
+	// Local calendar day the clock was last read in
+	private static volatile Today today = new Today(clock.millis());
+
+	private final long time;
+	// Worked out on first use. Each is always worked out to the same value,
+	// so a thread seeing it unset only repeats the work.
+	private int epochDay = EPOCH_DAY_NOT_SET;
+	private String formattedDate;
+	private String eightDigitDate;
+
+	public DateTime()
+	{
+		time = clock.millis();
+	}
+
+	public DateTime(int setClockForwardInDays)
+	{
+		long advance = ((setClockForwardInDays * 24L + 0) * 60L) * 60000L;
+		time = clock.millis() + advance;
+	}
+
+	public DateTime(DateTime startDate, int setClockForwardInDays)
+	{
+		long advance = ((setClockForwardInDays * 24L + 0) * 60L) * 60000L;
+		time = startDate.getTime() + advance;
+	}
+
+	public DateTime(int day, int month, int year)
+	{
+		time = toTime(day, month, year);
+	}
+
+	private DateTime(long time, int epochDay)
+	{
+		this.time = time;
+		this.epochDay = epochDay;
+	}
+
+	// holds a local calendar day with the times it begins and ends, so they are always read together
+	private static final class Today
+	{
+		private final int epochDay;
+		private final long start;
+		private final long end;
+
+		private Today(long time)
+		{
+			epochDay = toEpochDay(time);
+			start = fromEpochDay(epochDay).getTime();
+			end = fromEpochDay(epochDay + 1).getTime();
+		}
+
+		private boolean contains(long time)
+		{
+			return time >= start && time < end;
+		}
+	}
+
+	// returns the date at midnight of the given local calendar day
+	public static DateTime fromEpochDay(int epochDay)
+	{
+		long localMidnight = epochDay * MILLISECONDS_IN_DAY;
+		return new DateTime(localMidnight - ZONE.getOffset(localMidnight - ZONE.getRawOffset()), epochDay);
+	}
+
+	// returns the date written by getEightDigitDate, or null if it is not eight digits
+	public static DateTime fromEightDigitDate(String eightDigitDate)
+	{
+		if (eightDigitDate.length() != 8)
+		{
+			return null;
+		}
+		for (int i = 0; i < eightDigitDate.length(); i++)
+		{
+			if (eightDigitDate.charAt(i) < '0' || eightDigitDate.charAt(i) > '9')
+			{
+				return null;
+			}
+		}
+		int day = Integer.parseInt(eightDigitDate.substring(0, 2));
+		int month = Integer.parseInt(eightDigitDate.substring(2, 4));
+		int year = Integer.parseInt(eightDigitDate.substring(4, 8));
+		try
+		{
+			return fromEpochDay((int) LocalDate.of(year, month, day).toEpochDay());
+		}
+		catch (DateTimeException invalidDate)
+		{
+			return null;
+		}
+	}
+
+	public long getTime()
+	{
+		return time;
+	}
+
+	// returns the local calendar day of this date as days since 01/01/1970
+	public int getEpochDay()
+	{
+		if (epochDay == EPOCH_DAY_NOT_SET)
+		{
+			epochDay = toEpochDay(time);
+		}
+		return epochDay;
+	}
+
+	// returns today's local calendar day, working it out again only once the clock has left the day
+	public static int currentEpochDay()
+	{
+		long now = clock.millis();
+		Today current = today;
+		if (!current.contains(now))
+		{
+			current = new Today(now);
+			today = current;
+		}
+		return current.epochDay;
+	}
+
+	// returns the current time in milliseconds as read from the clock
+	public static long currentTimeMillis()
+	{
+		return clock.millis();
+	}
+
+	// works out today's local calendar day from the clock again, such as after the time zone has changed
+	public static void tick()
+	{
+		today = new Today(clock.millis());
+	}
+
+	// replaces the clock the current time is read from, such as with a fixed clock for testing
+	public static void setClock(Clock newClock)
+	{
+		clock = newClock;
+		tick();
+	}
+
+	private static int toEpochDay(long time)
+	{
+		return (int) Math.floorDiv(time + ZONE.getOffset(time), MILLISECONDS_IN_DAY);
+	}
+
+	public String toString()
+	{
+		return LocalDate.ofEpochDay(getEpochDay()).toString();
+	}
+
+	public static String getCurrentTime()
+	{
+		return LocalDate.ofEpochDay(currentEpochDay()).toString();
+	}
+
+	public String getFormattedDate()
+	{
+		String formatted = formattedDate;
+		if (formatted == null)
+		{
+			formatted = LocalDate.ofEpochDay(getEpochDay()).format(FORMATTED_DATE);
+			formattedDate = formatted;
+		}
+		return formatted;
+	}
+
+	public String getEightDigitDate()
+	{
+		String formatted = eightDigitDate;
+		if (formatted == null)
+		{
+			formatted = LocalDate.ofEpochDay(getEpochDay()).format(EIGHT_DIGIT_DATE);
+			eightDigitDate = formatted;
+		}
+		return formatted;
+	}
+
+	// returns difference in days to help determine if a given date is before or
+	// after another date.
+	public static int diffDays(DateTime endDate, DateTime startDate) throws NullPointerException
+	{
+		final long HOURS_IN_DAY = 24L;
+		final int MINUTES_IN_HOUR = 60;
+		final int SECONDS_IN_MINUTES = 60;
+		final int MILLISECONDS_IN_SECOND = 1000;
+		long convertToDays = HOURS_IN_DAY * MINUTES_IN_HOUR * SECONDS_IN_MINUTES * MILLISECONDS_IN_SECOND;
+		long hirePeriod = endDate.getTime() - startDate.getTime();
+		double difference = (double) hirePeriod / (double) convertToDays;
+		int round = (int) Math.round(difference);
+		return round;
+	}
+
+	private static long toTime(int day, int month, int year)
+	{
+		Calendar calendar = Calendar.getInstance();
+		calendar.set(year, month - 1, day, 0, 0);
+
+		return calendar.getTimeInMillis();
+	}
+
+	public DateTime removeTime()
+	{
+		return fromEpochDay(getEpochDay());
+	}
+
+	// fixes a bug in the performance of the diff days function
+	// the diff days function has been left in for backward compatibility
+	public static int actualDiffDays(DateTime endDate, DateTime startDate)
+	{
+		return endDate.getEpochDay() - startDate.getEpochDay();
+	}
+}
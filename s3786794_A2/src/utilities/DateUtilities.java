@@ -9,59 +9,43 @@ package utilities;
  * @version 1.0
  */
 public class DateUtilities {
+	private final static int DAYS_IN_WEEK = 7;
+	private final static int SILVER_SERVICE_DAYS = 3;
 
 	/*
 	 * Checks if date input is not in the past
 	 */
 	public static boolean dateIsNotInPast(DateTime date) {
-		final int OFFSET_FOR_DAYS_IN_MILLISECONDS = 1;
-		boolean notInPast = false;
-		
-		DateTime today = new DateTime();
-		
-		int daysInPast = DateTime.diffDays(date, today) + OFFSET_FOR_DAYS_IN_MILLISECONDS;
-		if(daysInPast >=0) {
-			notInPast = true;
-		}
-		
-		return notInPast;
+		return date.getEpochDay() >= DateTime.currentEpochDay();
 	}
 	
 	/*
 	 * Checks if date inputs are the same
 	 */
 	public static boolean datesAreTheSame(DateTime date1, DateTime date2) {
-		if(date1.getEightDigitDate().equals(date2.getEightDigitDate())) {
-			return true;
-		}
-		return false;
+		return date1.getEpochDay() == date2.getEpochDay();
 	}
 	
 	/*
 	 * Checks if date is more than 7 days
 	 */
 	public static boolean dateIsNotMoreThan7Days(DateTime date) {
-		boolean within7Days = false;
-		DateTime nextWeek = new DateTime(7);
-		
-		int daysInFuture = DateTime.diffDays(nextWeek, date);
-		if(daysInFuture >0 && daysInFuture <8) {
-			within7Days = true;
-		}
-		return within7Days;
+		return isWithinDays(date, DAYS_IN_WEEK);
 	}
 	
 	/*
 	 * Checks if date is more than 3 days
 	 */
 	public static boolean dateIsNotMoreThan3Days(DateTime date) {
-		boolean within3Days = false;
-		DateTime next3Days = new DateTime(3);
-		
-		int daysInFuture = DateTime.diffDays(next3Days, date);
-		if(daysInFuture >0 && daysInFuture <4) {
-			within3Days = true;
-		}
-		return within3Days;
+		return isWithinDays(date, SILVER_SERVICE_DAYS);
+	}
+	
+	/*
+	 * Checks if date falls on today or one of the following days,
+	 * for a window of the given number of days in total
+	 */
+	private static boolean isWithinDays(DateTime date, int days) {
+		int daysInFuture = date.getEpochDay() - DateTime.currentEpochDay();
+		return daysInFuture >= 0 && daysInFuture < days;
 	}
 }
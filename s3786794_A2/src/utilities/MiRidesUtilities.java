@@ -18,17 +18,44 @@ public class MiRidesUtilities {
 		if(regNoLength != ID_LENGTH) {
 			return "Error: registration number must be 6 characters";
 		}
-		boolean letters = regNo.substring(0,3).matches("[a-zA-Z]+");
+		boolean letters = areLetters(regNo, 0, 3);
 		if (!letters) {
 			return "Error: The registration number should begin with three alphabetical characters.";
 		}
-		boolean numbers = regNo.substring(3).matches("[0-9]+");
+		boolean numbers = areDigits(regNo, 3, ID_LENGTH);
 		if (!numbers) {
 			return "Error: The registration number should end with three numeric characters.";
 		}
 		return regNo;
 	}
 
+	/*
+	 * Checks if every character from start up to end is a letter from A to Z,
+	 * in either case
+	 */
+	public static boolean areLetters(String text, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/*
+	 * Checks if every character from start up to end is a digit from 0 to 9
+	 */
+	public static boolean areDigits(String text, int start, int end) {
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/*
 	 * Checks if passenger capacity is between 1 and 10
 	 */
@@ -0,0 +1,106 @@
+package utilities;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * ReportUtilities is the class responsible for writing the columns
+ * and numbers of the system's reports straight to their destination,
+ * giving the same text as the format strings the reports were first
+ * written with, without parsing a format string for every value.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class ReportUtilities {
+	private final static String SPACES = "                                        ";
+	// Digits of the locale numbers were last written in, as format strings use
+	private static volatile NumberSymbols numberSymbols = new NumberSymbols(Locale.getDefault(Locale.Category.FORMAT));
+
+	/*
+	 * Holds the digits of one locale, so the locale and its digits are always read together
+	 */
+	private static final class NumberSymbols {
+		private final Locale locale;
+		private final char zeroDigit;
+		private final char decimalSeparator;
+
+		private NumberSymbols(Locale locale) {
+			DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+			this.locale = locale;
+			this.zeroDigit = symbols.getZeroDigit();
+			this.decimalSeparator = symbols.getDecimalSeparator();
+		}
+	}
+
+	/*
+	 * Writes text followed by enough spaces to fill the width, as %-Ns would
+	 */
+	public static void appendPadded(Appendable out, String text, int width) throws IOException {
+		out.append(text);
+		appendSpaces(out, width - text.length());
+	}
+
+	/*
+	 * Writes a number of spaces
+	 */
+	public static void appendSpaces(Appendable out, int count) throws IOException {
+		while (count > 0) {
+			int written = Math.min(count, SPACES.length());
+			out.append(SPACES, 0, written);
+			count -= written;
+		}
+	}
+
+	/*
+	 * Writes a whole number, as %d would
+	 */
+	public static void appendInteger(Appendable out, long value) throws IOException {
+		appendLocalized(out, Long.toString(value));
+	}
+
+	/*
+	 * Writes a number rounded half up to two decimal places, as %.2f would.
+	 * A negative number that rounds to zero, or negative zero, keeps its sign.
+	 */
+	public static void appendTwoDecimals(Appendable out, double value) throws IOException {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			out.append(String.valueOf(value));
+			return;
+		}
+		BigDecimal rounded = BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+		if (rounded.signum() == 0 && Math.copySign(1.0, value) < 0) {
+			out.append('-');
+		}
+		appendLocalized(out, rounded.toPlainString());
+	}
+
+	/*
+	 * Writes a number in the digits and decimal separator of the default locale
+	 */
+	private static void appendLocalized(Appendable out, String number) throws IOException {
+		NumberSymbols symbols = numberSymbols;
+		Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		if (!symbols.locale.equals(locale)) {
+			symbols = new NumberSymbols(locale);
+			numberSymbols = symbols;
+		}
+		if (symbols.zeroDigit == '0' && symbols.decimalSeparator == '.') {
+			out.append(number);
+			return;
+		}
+		for (int i = 0; i < number.length(); i++) {
+			char c = number.charAt(i);
+			if (c >= '0' && c <= '9') {
+				out.append((char) (symbols.zeroDigit + (c - '0')));
+			} else if (c == '.') {
+				out.append(symbols.decimalSeparator);
+			} else {
+				out.append(c);
+			}
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package utilities;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StringDictionary is the class responsible for keeping a single
+ * copy of text that many objects of the system share, such as the
+ * makes and models of cars, so that a large fleet holds each value
+ * once rather than once per car.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class StringDictionary {
+	private final ConcurrentHashMap<String, String> entries = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Method is responsible for returning the shared copy of a
+	 * value, adding the value as the shared copy if it is new.
+	 *
+	 * @param value		text to share. Takes string input, or null
+	 * @return			Returns the shared copy equal to the value,
+	 * 					or null if the value is null.
+	 */
+	public String intern(String value) {
+		if (value == null) {
+			return null;
+		}
+		String shared = entries.putIfAbsent(value, value);
+		return shared == null ? value : shared;
+	}
+
+	// Required getters
+	public int size() {
+		return entries.size();
+	}
+}
@@ -0,0 +1,156 @@
+package utilities;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * TextDictionary is the class responsible for giving every distinct
+ * value of some text a number, so that objects can store the number
+ * instead of the text. Unlike StringDictionary no String is kept for
+ * each value. The bytes of every value are packed one after another
+ * in a single array, and values are found again through a table of
+ * numbers, so even text that is mostly different for every car, such
+ * as driver names, takes little more space than its characters.
+ *
+ * @author Peter Bui : s3786794
+ * @version 1.0
+ */
+public class TextDictionary {
+	public static final int NO_TEXT = -1;
+	private static final int INITIAL_CAPACITY = 16;
+
+	private byte[] text = new byte[INITIAL_CAPACITY * 8];
+	private int textLength = 0;
+	// Where each value ends within the text, by value number
+	private int[] ends = new int[INITIAL_CAPACITY];
+	private int size = 0;
+	// Value numbers plus one by hash of their bytes, 0 where empty
+	private int[] table = new int[INITIAL_CAPACITY * 2];
+
+	/**
+	 * Method is responsible for returning the number of a value,
+	 * adding the value if it is new.
+	 *
+	 * @param value		text to number. Takes string input, or null
+	 * @return			Returns the number of the value, or NO_TEXT if
+	 * 					the value is null.
+	 */
+	public synchronized int encode(String value) {
+		if (value == null) {
+			return NO_TEXT;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		int mask = table.length - 1;
+		int position = hash(bytes, 0, bytes.length) & mask;
+		while (table[position] != 0) {
+			int code = table[position] - 1;
+			if (matches(code, bytes)) {
+				return code;
+			}
+			position = (position + 1) & mask;
+		}
+
+		if (textLength + bytes.length > text.length) {
+			text = Arrays.copyOf(text, Math.max(text.length + (text.length >> 1), textLength + bytes.length));
+		}
+		System.arraycopy(bytes, 0, text, textLength, bytes.length);
+		textLength += bytes.length;
+		if (size == ends.length) {
+			ends = Arrays.copyOf(ends, size + (size >> 1));
+		}
+		ends[size] = textLength;
+		table[position] = ++size;
+		// The table is kept at most half full so values are found in few steps
+		if (size * 2 > table.length) {
+			growTable();
+		}
+		return size - 1;
+	}
+
+	/**
+	 * Method is responsible for returning the value of a number.
+	 *
+	 * @param code		value number. Takes numeric input returned by
+	 * 					encode
+	 * @return			Returns the value, or null for NO_TEXT.
+	 */
+	public synchronized String decode(int code) {
+		if (code == NO_TEXT) {
+			return null;
+		}
+		int start = start(code);
+		return new String(text, start, ends[code] - start, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Method is responsible for checking if a numbered value has
+	 * the same bytes as some text.
+	 *
+	 * @param code		value number. Takes numeric input
+	 * @param bytes		text looked for. Takes an array of byte input
+	 * @return			Returns true if the bytes are the same, otherwise false.
+	 */
+	private boolean matches(int code, byte[] bytes) {
+		int start = start(code);
+		if (ends[code] - start != bytes.length) {
+			return false;
+		}
+		for (int i = 0; i < bytes.length; i++) {
+			if (text[start + i] != bytes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Method is responsible for doubling the table of numbers and
+	 * placing every value in it again.
+	 */
+	private void growTable() {
+		table = new int[table.length * 2];
+		int mask = table.length - 1;
+		for (int code = 0; code < size; code++) {
+			int start = start(code);
+			int position = hash(text, start, ends[code]) & mask;
+			while (table[position] != 0) {
+				position = (position + 1) & mask;
+			}
+			table[position] = code + 1;
+		}
+	}
+
+	/**
+	 * Method is responsible for finding where a value starts
+	 * within the text.
+	 *
+	 * @param code		value number. Takes numeric input
+	 * @return			Returns the position of the value's first byte.
+	 */
+	private int start(int code) {
+		return code == 0 ? 0 : ends[code - 1];
+	}
+
+	/**
+	 * Method is responsible for mixing a range of bytes into a
+	 * number, so that similar values are spread across the table.
+	 *
+	 * @param bytes		bytes hashed. Takes an array of byte input
+	 * @param from		first byte hashed. Takes numeric input
+	 * @param to		byte after the last byte hashed. Takes numeric input
+	 * @return			Returns the hash of the bytes.
+	 */
+	private static int hash(byte[] bytes, int from, int to) {
+		int hash = 1;
+		for (int i = from; i < to; i++) {
+			hash = 31 * hash + bytes[i];
+		}
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	// Required getters
+	public synchronized int size() {
+		return size;
+	}
+}